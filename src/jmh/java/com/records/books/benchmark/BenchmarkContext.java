@@ -0,0 +1,65 @@
+package com.records.books.benchmark;
+
+import com.records.books.BooksApplication;
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+
+/**
+ * Boots the JPA layer of the application without the web server, against the embedded H2 database
+ * of the test profile (MySQL mode, a fresh database per start), for use in JMH state objects.
+ */
+final class BenchmarkContext {
+    static final LocalDate FIRST_DATE = LocalDate.of(5000, 1, 1);
+    private static final int CHUNK_SIZE = 1000;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(BooksApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .logStartupInfo(false)
+                // Command-line arguments, because default properties would lose against application.properties.
+                .run("--logging.level.root=WARN", "--spring.main.banner-mode=off",
+                        "--logging.level.org.springframework.beans.factory.support.DisposableBeanAdapter=ERROR");
+    }
+
+    /**
+     * Inserts consecutive publishing dates from {@link #FIRST_DATE} with the given number of books each,
+     * in chunked transactions.
+     *
+     * @return the ids of the created dates, in date order
+     */
+    static long[] seed(ConfigurableApplicationContext context, int dates, int booksPerDate) {
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        EntityManager entityManager = context.getBean(EntityManager.class);
+        long[] dateIds = new long[dates];
+        int datesPerChunk = Math.max(1, CHUNK_SIZE / Math.max(1, booksPerDate));
+        for (int from = 0; from < dates; from += datesPerChunk) {
+            int start = from;
+            int end = Math.min(dates, from + datesPerChunk);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = start; i < end; i++) {
+                    PublishingDate publishingDate = new PublishingDate(FIRST_DATE.plusDays(i));
+                    entityManager.persist(publishingDate);
+                    dateIds[i] = publishingDate.getId();
+                    for (int j = 0; j < booksPerDate; j++) {
+                        Book book = new Book("Benchmark " + i + "-" + j, "Genre " + (j % 20));
+                        book.setPublishingDate(publishingDate);
+                        entityManager.persist(book);
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        return dateIds;
+    }
+}
@@ -0,0 +1,93 @@
+package com.records.books.benchmark;
+
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import com.records.books.repositories.BookRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk insert of {@code rows} books with {@code saveAll}, one transaction per chunk of
+ * {@code books.import.chunk-size} rows with the persistence context flushed and cleared, as the import does.
+ * Each measured iteration is a single shot over all rows; the table is emptied between iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BookSaveAllJmh {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private BookRepository bookRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private int chunkSize;
+    private PublishingDate publishingDate;
+    private List<Book> books;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        bookRepository = context.getBean(BookRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        chunkSize = context.getEnvironment().getProperty("books.import.chunk-size", Integer.class, 1000);
+        long dateId = BenchmarkContext.seed(context, 1, 0)[0];
+        publishingDate = transactionTemplate.execute(status -> entityManager.find(PublishingDate.class, dateId));
+    }
+
+    @Setup(Level.Iteration)
+    public void createBooks() {
+        books = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Book book = new Book("Bulk " + i, "Genre " + (i % 20));
+            book.setPublishingDate(publishingDate);
+            books.add(book);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteBooks() {
+        transactionTemplate.executeWithoutResult(status -> bookRepository.deleteAllInBatch());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int saveAll() {
+        for (int from = 0; from < rows; from += chunkSize) {
+            List<Book> chunk = books.subList(from, Math.min(rows, from + chunkSize));
+            transactionTemplate.executeWithoutResult(status -> {
+                bookRepository.saveAll(chunk);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,54 @@
+package com.records.books.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs the JMH benchmarks of this package and writes the results as JSON, by default to
+ * {@code target/jmh-result.json}, so runs can be compared for regressions.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=JmhBenchmark}. Optional system properties:
+ * {@code jmh.include} (regex of benchmarks to run), {@code jmh.params} (e.g. {@code rows=10000;updateBooks=10,100}),
+ * {@code jmh.forks}, {@code jmh.warmupIterations}, {@code jmh.measurementIterations} and {@code jmh.result}.
+ */
+@Tag("benchmark")
+public class JmhBenchmark {
+
+    @Test
+    public void runJmhBenchmarks() throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(System.getProperty("jmh.include", JmhBenchmark.class.getPackageName() + "\\..*Jmh"))
+                .resultFormat(ResultFormatType.JSON)
+                .result(System.getProperty("jmh.result", "target/jmh-result.json"))
+                .shouldFailOnError(true);
+        String params = System.getProperty("jmh.params", "");
+        for (String param : params.split(";")) {
+            int separator = param.indexOf('=');
+            if (separator > 0) {
+                options.param(param.substring(0, separator).trim(), param.substring(separator + 1).trim().split(","));
+            }
+        }
+        if (System.getProperty("jmh.forks") != null) {
+            options.forks(Integer.getInteger("jmh.forks"));
+        }
+        if (System.getProperty("jmh.warmupIterations") != null) {
+            options.warmupIterations(Integer.getInteger("jmh.warmupIterations"));
+        }
+        if (System.getProperty("jmh.measurementIterations") != null) {
+            options.measurementIterations(Integer.getInteger("jmh.measurementIterations"));
+        }
+
+        Collection<RunResult> results = new Runner(options.build()).run();
+
+        assertFalse(results.isEmpty(), "No benchmark matched " + options.build().getIncludes());
+    }
+}
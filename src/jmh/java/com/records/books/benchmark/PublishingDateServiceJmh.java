@@ -0,0 +1,98 @@
+package com.records.books.benchmark;
+
+import com.records.books.dto.BookSummary;
+import com.records.books.entities.PublishingDate;
+import com.records.books.repositories.BookRepository;
+import com.records.books.services.PublishingDateService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishing date reads and updates through the service layer, on a catalog of {@code dates} dates
+ * with {@code booksPerDate} books each. {@code updatePublishingDate} reassigns {@code updateBooks}
+ * books to one date per call, so its cost grows with N.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PublishingDateServiceJmh {
+
+    @Param("1000")
+    public int dates;
+
+    @Param("20")
+    public int booksPerDate;
+
+    @Param({"10", "100", "1000"})
+    public int updateBooks;
+
+    private ConfigurableApplicationContext context;
+    private PublishingDateService publishingDateService;
+    private BookRepository bookRepository;
+    private PublishingDate updated;
+    private List<Long> updatedBookIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        publishingDateService = context.getBean(PublishingDateService.class);
+        bookRepository = context.getBean(BookRepository.class);
+        long[] dateIds = BenchmarkContext.seed(context, dates, booksPerDate);
+
+        updated = publishingDateService.getPublishingDateForUpdate(dateIds[dates - 1]).orElseThrow();
+        updatedBookIds = context.getBean(EntityManager.class)
+                .createQuery("SELECT b.id FROM Book b ORDER BY b.id", Long.class)
+                .setMaxResults(updateBooks)
+                .getResultList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PublishingDate> getAllPublishingDates() {
+        return publishingDateService.getAllPublishingDates();
+    }
+
+    @Benchmark
+    public List<BookSummary> getBooksByPublishingDate() {
+        return publishingDateService.getBooksByPublishingDate(randomDate());
+    }
+
+    @Benchmark
+    public List<BookSummary> findBooksByPublishingDateUncached() {
+        return bookRepository.findBooksByPublishingDate(randomDate());
+    }
+
+    @Benchmark
+    public PublishingDate updatePublishingDate() {
+        publishingDateService.updatePublishingDate(updated, updatedBookIds);
+        return updated;
+    }
+
+    private LocalDate randomDate() {
+        return BenchmarkContext.FIRST_DATE.plusDays(ThreadLocalRandom.current().nextInt(dates));
+    }
+}
@@ -0,0 +1,14 @@
+package com.records.books.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Switches on Spring's cache abstraction. The cache manager is Boot's Caffeine manager, configured with
+ * {@code spring.cache.cache-names} and {@code spring.cache.caffeine.spec}; the caches are used through
+ * {@link com.records.books.services.BooksByDateCache}.
+ */
+@Configuration
+@EnableCaching
+public class CachingConfig {
+}
@@ -0,0 +1,76 @@
+package com.records.books.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits at most a fixed number of requests at a time; the others wait in FIFO order for up to the
+ * queue timeout and are then answered with 503 and {@code Retry-After}.
+ * <p>
+ * With virtual threads Tomcat no longer caps concurrency with its worker pool, so without this limit
+ * every request would reach the connection pool at once and fail there after the Hikari connection
+ * timeout. Waiting on the semaphore parks a virtual thread without holding a carrier or a connection.
+ * Actuator endpoints bypass the limit so health checks keep answering under load.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long queueTimeoutNanos;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(int maxConcurrentRequests, Duration queueTimeout, MeterRegistry meterRegistry) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("maxConcurrentRequests must be at least 1");
+        }
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        Gauge.builder("books.web.requests.active", permits, semaphore -> maxConcurrentRequests - semaphore.availablePermits())
+                .description("Requests admitted by the concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("books.web.requests.queued", permits, Semaphore::getQueueLength)
+                .description("Requests waiting for the concurrency limit")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("books.web.requests.rejected")
+                .description("Requests answered with 503 after waiting for the queue timeout")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server busy, retry later");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.records.books.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.support.AbstractFlashMapManager;
+import org.springframework.web.util.WebUtils;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps flash attributes in a signed cookie instead of the HTTP session, so a redirect after a write
+ * can land on any instance and no session is created to show a one-off message.
+ * <p>
+ * The cookie holds the flash maps as JSON with an HMAC-SHA256 signature; cookies that fail the
+ * check are ignored. All instances behind one load balancer must share the same secret. Flash
+ * attribute values come back as their JSON types, which covers the string messages used here.
+ */
+public class CookieFlashMapManager extends AbstractFlashMapManager {
+    private static final Logger logger = LoggerFactory.getLogger(CookieFlashMapManager.class);
+
+    public static final String COOKIE_NAME = "FLASH";
+    private static final String UPDATED_FLASH_MAPS_ATTRIBUTE = CookieFlashMapManager.class.getName() + ".FLASH_MAPS";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MAX_COOKIE_LENGTH = 4000;
+
+    private record StoredFlashMap(String path, Map<String, List<String>> params, long expires, Map<String, Object> attributes) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec key;
+
+    /**
+     * @param secret the signing secret shared by all instances; if empty, a random secret is used,
+     *               which only works while every redirect comes back to this instance
+     */
+    public CookieFlashMapManager(ObjectMapper objectMapper, String secret) {
+        this.objectMapper = objectMapper;
+        byte[] keyBytes;
+        if (StringUtils.hasText(secret)) {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        } else {
+            logger.warn("No flash cookie secret configured, using a random one; set books.web.flash-secret when running more than one instance");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        }
+        this.key = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected List<FlashMap> retrieveFlashMaps(HttpServletRequest request) {
+        Object updated = request.getAttribute(UPDATED_FLASH_MAPS_ATTRIBUTE);
+        if (updated != null) {
+            return new ArrayList<>((List<FlashMap>) updated);
+        }
+        Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+        if (cookie == null || !StringUtils.hasText(cookie.getValue())) {
+            return null;
+        }
+        try {
+            return decode(cookie.getValue());
+        } catch (IllegalArgumentException | IOException e) {
+            logger.debug("Ignoring unreadable flash cookie: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    protected void updateFlashMaps(List<FlashMap> flashMaps, HttpServletRequest request, HttpServletResponse response) {
+        request.setAttribute(UPDATED_FLASH_MAPS_ATTRIBUTE, List.copyOf(flashMaps));
+        String value = "";
+        if (!flashMaps.isEmpty()) {
+            try {
+                value = encode(flashMaps);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot write flash attributes", e);
+            }
+            if (value.length() > MAX_COOKIE_LENGTH) {
+                logger.warn("Dropping flash attributes of {} characters, more than a cookie can hold", value.length());
+                value = "";
+            }
+        }
+        String path = StringUtils.hasText(request.getContextPath()) ? request.getContextPath() : "/";
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, value)
+                .path(path)
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .maxAge(value.isEmpty() ? 0 : getFlashMapTimeout())
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    private String encode(List<FlashMap> flashMaps) throws JsonProcessingException {
+        List<StoredFlashMap> stored = new ArrayList<>(flashMaps.size());
+        for (FlashMap flashMap : flashMaps) {
+            stored.add(new StoredFlashMap(flashMap.getTargetRequestPath(), flashMap.getTargetRequestParams(),
+                    flashMap.getExpirationTime(), flashMap));
+        }
+        String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(stored));
+        return payload + "." + sign(payload);
+    }
+
+    private List<FlashMap> decode(String value) throws IOException {
+        int separator = value.lastIndexOf('.');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Missing signature");
+        }
+        String payload = value.substring(0, separator);
+        byte[] signature = value.substring(separator + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(signature, sign(payload).getBytes(StandardCharsets.US_ASCII))) {
+            throw new IllegalArgumentException("Bad signature");
+        }
+        List<StoredFlashMap> stored = objectMapper.readValue(Base64.getUrlDecoder().decode(payload), new TypeReference<>() {
+        });
+        List<FlashMap> flashMaps = new ArrayList<>(stored.size());
+        for (StoredFlashMap entry : stored) {
+            FlashMap flashMap = new FlashMap();
+            flashMap.setTargetRequestPath(entry.path());
+            if (entry.params() != null) {
+                flashMap.addTargetRequestParams(new LinkedMultiValueMap<>(entry.params()));
+            }
+            flashMap.setExpirationTime(entry.expires());
+            if (entry.attributes() != null) {
+                flashMap.putAll(entry.attributes());
+            }
+            flashMaps.add(flashMap);
+        }
+        return flashMaps;
+    }
+
+    private String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign flash attributes", e);
+        }
+    }
+}
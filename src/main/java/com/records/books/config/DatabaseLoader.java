@@ -1,56 +1,63 @@
 package com.records.books.config;
 
-import com.records.books.entities.Book;
-import com.records.books.entities.PublishingDate;
 import com.records.books.repositories.BookRepository;
 import com.records.books.repositories.PublishingDateRepository;
+import com.records.books.services.SyntheticCatalogGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
 
+/**
+ * Seeds an empty catalog with synthetic data on startup (see {@link SyntheticCatalogGenerator}).
+ * A catalog that already has rows is left alone, so restarts against a persistent database are safe.
+ * Sizes are set with the {@code books.seed.*} properties; {@code books.seed.enabled=false} turns it off.
+ */
 @Component
 public class DatabaseLoader implements CommandLineRunner {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseLoader.class);
     private final BookRepository bookRepository;
     private final PublishingDateRepository publishingDateRepository;
+    private final SyntheticCatalogGenerator generator;
+    private final boolean enabled;
+    private final int dates;
+    private final long books;
+    private final double skew;
+    private final LocalDate firstDate;
+    private final long randomSeed;
 
-    public DatabaseLoader(BookRepository bookRepository, PublishingDateRepository publishingDateRepository) {
+    public DatabaseLoader(BookRepository bookRepository, PublishingDateRepository publishingDateRepository,
+                          SyntheticCatalogGenerator generator,
+                          @Value("${books.seed.enabled:true}") boolean enabled,
+                          @Value("${books.seed.dates:10}") int dates,
+                          @Value("${books.seed.books:10}") long books,
+                          @Value("${books.seed.skew:0}") double skew,
+                          @Value("${books.seed.first-date:2018-01-01}") LocalDate firstDate,
+                          @Value("${books.seed.random-seed:42}") long randomSeed) {
         this.bookRepository = bookRepository;
         this.publishingDateRepository = publishingDateRepository;
+        this.generator = generator;
+        this.enabled = enabled;
+        this.dates = dates;
+        this.books = books;
+        this.skew = skew;
+        this.firstDate = firstDate;
+        this.randomSeed = randomSeed;
     }
 
     @Override
     public void run(String... args) {
-        try {
-            logger.info("⏳ Loading sample data...");
-
-            // Create PublishingDates
-            List<PublishingDate> publishingDates = new ArrayList<>();
-            for (int i = 1; i <= 10; i++) {
-                PublishingDate date = new PublishingDate();
-                date.setDate(LocalDate.of(2018 + (i % 5), (i % 12) + 1, 1)); // ✅ Ensures valid months
-                publishingDates.add(date);
-            }
-            publishingDateRepository.saveAll(publishingDates);
-
-            // Create Books
-            List<Book> books = new ArrayList<>();
-            for (int i = 1; i <= 10; i++) {
-                Book book = new Book();
-                book.setTitle("Book " + i);
-                book.setGenre("Genre " + i);
-                book.setPublishingDate(publishingDates.get(i % publishingDates.size())); // ✅ Ensures valid index
-                books.add(book);
-            }
-            bookRepository.saveAll(books);
-
-            logger.info("✅ Sample data successfully loaded: {} PublishingDates, {} Books", publishingDates.size(), books.size());
-        } catch (Exception e) {
-            logger.error("❌ Error loading sample data: {}", e.getMessage(), e);
+        if (!enabled) {
+            return;
+        }
+        if (publishingDateRepository.count() > 0 || bookRepository.count() > 0) {
+            logger.info("Catalog already has data, skipping sample data");
+            return;
         }
+        logger.info("⏳ Loading sample data: {} PublishingDates, {} Books...", dates, books);
+        generator.generate(dates, books, skew, firstDate, randomSeed);
+        logger.info("✅ Sample data successfully loaded");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package com.records.books.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.records.books.services.FileOutboxEventSink;
+import com.records.books.services.LogOutboxEventSink;
+import com.records.books.services.OutboxEventSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.nio.file.Path;
+
+/**
+ * Sink of the catalog change events relayed from the outbox (see OutboxRelay).
+ */
+@Configuration
+public class OutboxConfig {
+
+    /**
+     * Appends the events to {@code books.outbox.sink-file} as JSON lines, or logs them if no file is set.
+     * Replaced by any other {@link OutboxEventSink} bean.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxEventSink outboxEventSink(ObjectMapper objectMapper, @Value("${books.outbox.sink-file:}") String sinkFile) {
+        if (sinkFile.isBlank()) {
+            return new LogOutboxEventSink();
+        }
+        return new FileOutboxEventSink(Path.of(sinkFile), objectMapper);
+    }
+}
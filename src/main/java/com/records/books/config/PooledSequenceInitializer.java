@@ -0,0 +1,79 @@
+package com.records.books.config;
+
+import com.records.books.entities.PooledSequence;
+import com.records.books.entities.PooledSequenceGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves the {@link PooledSequence} sequences past the ids already stored on startup. When the sequences
+ * are added to an existing database, {@code ddl-auto=update} creates them (on MySQL, the tables emulating
+ * them) starting at 1, and the first insert would fail with a duplicate key. A sequence is only ever
+ * moved forward, so ids another node has already reserved are never handed out again.
+ * Runs once all singletons exist, before the web server takes requests.
+ */
+@Component
+public class PooledSequenceInitializer implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(PooledSequenceInitializer.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public PooledSequenceInitializer(EntityManagerFactory entityManagerFactory, EntityManager entityManager,
+                                     TransactionTemplate transactionTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        JdbcEnvironment jdbcEnvironment = sessionFactory.getJdbcServices().getJdbcEnvironment();
+        Dialect dialect = jdbcEnvironment.getDialect();
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (persister.getGenerator() instanceof PooledSequenceGenerator generator) {
+                AbstractEntityPersister entity = (AbstractEntityPersister) persister;
+                DatabaseStructure structure = generator.getDatabaseStructure();
+                String sequence = jdbcEnvironment.getQualifiedObjectNameFormatter().format(structure.getPhysicalName(), dialect);
+                transactionTemplate.executeWithoutResult(status -> seed(dialect, structure, sequence,
+                        entity.getTableName(), entity.getIdentifierColumnNames()[0]));
+            }
+        });
+    }
+
+    private void seed(Dialect dialect, DatabaseStructure structure, String sequence, String table, String idColumn) {
+        Number maxId = (Number) entityManager.createNativeQuery("SELECT MAX(" + idColumn + ") FROM " + table)
+                .getSingleResult();
+        if (maxId == null) {
+            return;
+        }
+        // The pooled optimizer hands out the block of ids ending at the value it reads.
+        long nextValue = maxId.longValue() + structure.getIncrementSize();
+        if (structure.isPhysicalSequence()) {
+            // Reading the current value uses it up, which only leaves a gap.
+            long current = ((Number) entityManager.createNativeQuery(
+                    dialect.getSequenceSupport().getSequenceNextValString(sequence)).getSingleResult()).longValue();
+            if (current >= nextValue) {
+                return;
+            }
+            entityManager.createNativeQuery("ALTER SEQUENCE " + sequence + " RESTART WITH " + nextValue).executeUpdate();
+        } else if (entityManager.createNativeQuery("UPDATE " + sequence + " SET next_val = ?1 WHERE next_val < ?1")
+                .setParameter(1, nextValue)
+                .executeUpdate() == 0) {
+            return;
+        }
+        logger.info("Moved {} to {}, past the ids already in {}", sequence, nextValue, table);
+    }
+}
@@ -0,0 +1,93 @@
+package com.records.books.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes {@code @Transactional(readOnly = true)} work to read replicas when
+ * {@code books.datasource.replica-urls} is set; without it the single Boot-configured pool is used.
+ * The replicas share the primary's credentials and {@code spring.datasource.hikari.*} settings, and what
+ * is read from them is not put into the second-level cache.
+ */
+@Configuration
+@ConditionalOnProperty("books.datasource.replica-urls")
+public class ReadReplicaConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    @Bean
+    public ReadWriteRoutingDataSource dataSource(DataSourceProperties properties, Environment environment,
+                                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                                 @Value("${books.datasource.replica-urls}") List<String> replicaUrls) {
+        HikariDataSource primary = pool(properties, environment, properties.determineUrl(), "books-primary");
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            HikariDataSource replica = pool(properties, environment, url.trim(), "books-replica-" + replicas.size());
+            // The primary is bound by Boot's pool metrics; the replicas are not beans, so bind them here.
+            meterRegistry.ifAvailable(replica::setMetricRegistry);
+            replicas.add(replica);
+        }
+        logger.info("Routing read-only transactions to {} read replica(s)", replicas.size());
+        return new ReadWriteRoutingDataSource(primary, replicas);
+    }
+
+    /**
+     * Replaces Boot's transaction manager so that sessions reading from a replica do not fill the
+     * second-level cache.
+     */
+    @Bean
+    public ReadReplicaTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        ReadReplicaTransactionManager transactionManager = new ReadReplicaTransactionManager();
+        customizers.ifAvailable(customizer -> customizer.customize(transactionManager));
+        return transactionManager;
+    }
+
+    /**
+     * Returns the connection to the pool at the end of each transaction instead of holding it for the whole
+     * request (open session in view), so the next transaction of the request is routed on its own.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    /**
+     * Keeps the reads of a client on the primary for {@code books.datasource.read-your-writes-window}
+     * after it wrote, so redirects after a POST never show stale replica data.
+     */
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${books.datasource.read-your-writes-window:5s}") Duration window) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(window));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        registration.setName("readYourWritesFilter");
+        return registration;
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment, String url, String name) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        return pool;
+    }
+}
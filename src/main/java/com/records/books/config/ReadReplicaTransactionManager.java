@@ -0,0 +1,31 @@
+package com.records.books.config;
+
+import jakarta.persistence.CacheStoreMode;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps what transactions read from a replica out of the second-level cache.
+ * <p>
+ * A replica may still return rows the primary has changed since. Cached, they would be served to every
+ * reader, on the primary too, after the change has evicted its entries. The sessions of transactions that
+ * {@link ReadWriteRoutingDataSource} sends to a replica therefore still read from the second-level cache
+ * but never put into it. The cache mode is set when the transaction begins, because Hibernate reads it
+ * before the first statement fetches the connection that decides the route.
+ */
+public class ReadReplicaTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        if (definition.isReadOnly() && !ReadYourWritesFilter.isPrimaryRequired()) {
+            EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager
+                    .getResource(obtainEntityManagerFactory());
+            // Also switches the session to CacheMode.GET, which queries and lazy loads use.
+            holder.getEntityManager().setProperty(AvailableHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.records.books.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the statements of read-only transactions to the read replicas, taken in turn, and everything else
+ * to the primary. Requests that must see their own recent writes are kept on the primary
+ * (see {@link ReadYourWritesFilter}).
+ * <p>
+ * The physical connection is fetched lazily at the first statement, so the routing decision sees the
+ * read-only flag of the transaction, which is set only after the transaction has begun.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one read replica is required");
+        }
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        List<String> replicaKeys = new ArrayList<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put("replica-" + i, replicas.get(i));
+            replicaKeys.add("replica-" + i);
+        }
+        Router router = new Router(replicaKeys);
+        router.setTargetDataSources(targets);
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public List<HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+
+    private static final class Router extends AbstractRoutingDataSource {
+        private final List<String> replicaKeys;
+        private final AtomicInteger next = new AtomicInteger();
+
+        private Router(List<String> replicaKeys) {
+            this.replicaKeys = replicaKeys;
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadYourWritesFilter.isPrimaryRequired()) {
+                return PRIMARY;
+            }
+            return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+        }
+    }
+}
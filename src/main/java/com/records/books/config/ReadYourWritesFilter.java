@@ -0,0 +1,84 @@
+package com.records.books.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Keeps a client's reads on the primary for a short window after it sent a write, so the page it is
+ * redirected to after a POST shows the change even if the replicas have not applied it yet.
+ * <p>
+ * Every unsafe request (POST, PUT, PATCH, DELETE) sets a cookie holding the end of the window; requests
+ * carrying an unexpired cookie, and the write request itself, read from the primary. The cookie lives on
+ * the client, so the window holds whichever instance serves the next request.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "PRIMARY_UNTIL";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    /**
+     * Tells whether the current request must read from the primary.
+     */
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            addCookie(request, response);
+        }
+        if (write || isWithinWindow(request)) {
+            PRIMARY_REQUIRED.set(Boolean.TRUE);
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    private boolean isWithinWindow(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+        if (cookie == null) {
+            return false;
+        }
+        try {
+            return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void addCookie(HttpServletRequest request, HttpServletResponse response) {
+        String path = StringUtils.hasText(request.getContextPath()) ? request.getContextPath() : "/";
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, Long.toString(System.currentTimeMillis() + window.toMillis()))
+                .path(path)
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .maxAge(Math.max(1, window.toSeconds()))
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+}
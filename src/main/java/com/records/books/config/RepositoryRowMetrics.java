@@ -0,0 +1,55 @@
+package com.records.books.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many rows each query method of the application repositories returns, as the
+ * {@code books.repository.rows} distribution tagged with repository and method.
+ * Latency of the same calls is recorded by Spring Boot as {@code spring.data.repository.invocations}.
+ * Streams are not counted, since their size is only known once the caller has consumed them.
+ */
+@Aspect
+@Component
+public class RepositoryRowMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public RepositoryRowMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @AfterReturning(pointcut = "execution(* com.records.books.repositories.*Repository.*(..))", returning = "result")
+    public void recordRows(JoinPoint joinPoint, Object result) {
+        long rows;
+        if (result instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (result instanceof Optional<?> optional) {
+            rows = optional.isPresent() ? 1 : 0;
+        } else if (result instanceof Slice<?> slice) {
+            rows = slice.getNumberOfElements();
+        } else {
+            return;
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        summaries.computeIfAbsent(method, key -> DistributionSummary.builder("books.repository.rows")
+                        .description("Rows returned by repository query methods")
+                        .baseUnit("rows")
+                        .tag("repository", key.getDeclaringClass().getSimpleName())
+                        .tag("method", key.getName())
+                        .register(meterRegistry))
+                .record(rows);
+    }
+}
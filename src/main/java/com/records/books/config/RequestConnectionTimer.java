@@ -0,0 +1,47 @@
+package com.records.books.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds up how long Hibernate sessions on the current thread hold a JDBC connection while a timing is open.
+ * Registered through {@code hibernate.session.events.auto}, which creates one instance per session, and
+ * read by {@link RequestTimingFilter}.
+ */
+public class RequestConnectionTimer implements SessionEventListener {
+
+    private static final ThreadLocal<long[]> HELD_NANOS = new ThreadLocal<>();
+
+    private long acquiredAt;
+
+    /**
+     * Starts timing on the current thread, discarding any earlier timing.
+     */
+    public static void start() {
+        HELD_NANOS.set(new long[1]);
+    }
+
+    /**
+     * Stops timing on the current thread.
+     *
+     * @return the nanoseconds connections were held since {@link #start()}, or 0 if no timing was open
+     */
+    public static long stop() {
+        long[] held = HELD_NANOS.get();
+        HELD_NANOS.remove();
+        return held == null ? 0 : held[0];
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        acquiredAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionReleaseEnd() {
+        long[] held = HELD_NANOS.get();
+        if (held != null && acquiredAt != 0) {
+            held[0] += System.nanoTime() - acquiredAt;
+        }
+        acquiredAt = 0;
+    }
+}
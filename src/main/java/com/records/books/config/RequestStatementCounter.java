@@ -0,0 +1,40 @@
+package com.records.books.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a count is open.
+ * Registered through {@code hibernate.session_factory.statement_inspector} and read by
+ * {@link RequestTimingFilter}; the SQL itself is passed through unchanged.
+ */
+public class RequestStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+    /**
+     * Starts counting on the current thread, discarding any earlier count.
+     */
+    public static void start() {
+        COUNT.set(new long[1]);
+    }
+
+    /**
+     * Stops counting on the current thread.
+     *
+     * @return the statements prepared since {@link #start()}, or 0 if no count was open
+     */
+    public static long stop() {
+        long[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,69 @@
+package com.records.books.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs one line per request with the method, route pattern, status, number of SQL statements, time spent
+ * holding JDBC connections and latency. The values are also attached as key-value pairs, so structured log
+ * output carries them as fields. Turn the log off with
+ * {@code logging.level.com.records.books.config.RequestTimingFilter=WARN}.
+ * <p>
+ * The connection hold time is always recorded as {@code books.web.connection.hold} per method and route,
+ * which shows whether requests give their connection back before the view renders.
+ */
+public class RequestTimingFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RequestTimingFilter.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestTimingFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        RequestStatementCounter.start();
+        RequestConnectionTimer.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long statements = RequestStatementCounter.stop();
+            long connectionHeldNanos = RequestConnectionTimer.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Timer.builder("books.web.connection.hold")
+                    .description("Time a request held JDBC connections")
+                    .tag("method", request.getMethod())
+                    .tag("route", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .register(meterRegistry)
+                    .record(connectionHeldNanos, TimeUnit.NANOSECONDS);
+            if (logger.isInfoEnabled()) {
+                double durationMs = (System.nanoTime() - start) / 1_000_000.0;
+                double connectionMs = connectionHeldNanos / 1_000_000.0;
+                String route = pattern != null ? pattern.toString() : request.getRequestURI();
+                logger.atInfo()
+                        .addKeyValue("method", request.getMethod())
+                        .addKeyValue("route", route)
+                        .addKeyValue("status", response.getStatus())
+                        .addKeyValue("statements", statements)
+                        .addKeyValue("connectionMs", connectionMs)
+                        .addKeyValue("durationMs", durationMs)
+                        .log("{} {} status={} statements={} connectionMs={} durationMs={}",
+                                request.getMethod(), route, response.getStatus(), statements,
+                                String.format("%.2f", connectionMs), String.format("%.2f", durationMs));
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.records.books.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.records.books.services.CacheInvalidationChannel;
+import com.records.books.services.LocalCacheInvalidationChannel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache regions, backed by Caffeine through JCache. Each region is configured under
+ * {@code books.l2-cache.regions.<region>} with a maximum size and a time to live; a region used by an
+ * entity mapping but missing here fails the startup. The cache is switched on and off with
+ * {@code spring.jpa.properties.hibernate.cache.use_second_level_cache}.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCacheConfig.class);
+
+    public record RegionSettings(long maximumSize, Duration expireAfterWrite) {
+    }
+
+    /**
+     * One cache manager per application context, so contexts in the same JVM never share entries.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(Environment environment) {
+        Map<String, RegionSettings> regions = Binder.get(environment)
+                .bind("books.l2-cache.regions", Bindable.mapOf(String.class, RegionSettings.class))
+                .orElse(Map.of());
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("books-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+        regions.forEach((region, settings) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(settings.maximumSize()));
+            if (settings.expireAfterWrite() != null) {
+                configuration.setExpireAfterWrite(OptionalLong.of(settings.expireAfterWrite().toNanos()));
+            }
+            cacheManager.createCache(region, configuration);
+            logger.debug("Second-level cache region {}: {}", region, settings);
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    /**
+     * In-process invalidation channel, replaced by any other {@link CacheInvalidationChannel} bean.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheInvalidationChannel cacheInvalidationChannel() {
+        return new LocalCacheInvalidationChannel();
+    }
+
+    /**
+     * Hit ratio per region as {@code books.l2cache.hit.ratio}, next to the raw
+     * {@code hibernate.second.level.cache.requests} counts.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            for (String region : statistics.getSecondLevelCacheRegionNames()) {
+                Gauge.builder("books.l2cache.hit.ratio", statistics, stats -> hitRatio(stats.getDomainDataRegionStatistics(region)))
+                        .tag("region", region)
+                        .description("Share of second-level cache lookups answered from the cache")
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double hitRatio(CacheRegionStatistics region) {
+        long lookups = region.getHitCount() + region.getMissCount();
+        return lookups == 0 ? Double.NaN : (double) region.getHitCount() / lookups;
+    }
+}
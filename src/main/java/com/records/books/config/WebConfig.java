@@ -0,0 +1,82 @@
+package com.records.books.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.FlashMapManager;
+import java.time.Duration;
+
+@Configuration
+public class WebConfig {
+    private static final Logger logger = LoggerFactory.getLogger(WebConfig.class);
+
+    /**
+     * Logs route, status, statement count, connection hold time and latency of every request; runs first
+     * so the latency covers all other filters.
+     */
+    @Bean
+    public FilterRegistrationBean<RequestTimingFilter> requestTimingFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RequestTimingFilter> registration = new FilterRegistrationBean<>(new RequestTimingFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.setName("requestTimingFilter");
+        return registration;
+    }
+
+    /**
+     * Bounds the requests in flight when they run on virtual threads ({@code spring.threads.virtual.enabled}
+     * on Java 21+). On platform threads the filter stays off, because Tomcat's worker pool already sets
+     * the bound. Ordered right after the timing filter, so logged latencies include the wait.
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            Environment environment, MeterRegistry meterRegistry,
+            @Value("${books.web.max-concurrent-requests:40}") int maxConcurrentRequests,
+            @Value("${books.web.queue-timeout:10s}") Duration queueTimeout) {
+        boolean virtualThreads = Threading.VIRTUAL.isActive(environment);
+        if (virtualThreads) {
+            logger.info("Requests run on virtual threads, at most {} at a time", maxConcurrentRequests);
+        } else if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            logger.warn("spring.threads.virtual.enabled needs Java 21 or later; running on platform threads on Java {}",
+                    JavaVersion.getJavaVersion());
+        }
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(maxConcurrentRequests, queueTimeout, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        registration.setName("concurrencyLimitFilter");
+        registration.setEnabled(virtualThreads);
+        return registration;
+    }
+
+    /**
+     * Adds an ETag to JSON API responses and answers matching If-None-Match requests with 304,
+     * so unchanged pages are not sent again. Limited to /api/* because the filter buffers the
+     * whole response, which would defeat the streaming export.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> apiEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/*");
+        registration.setName("apiEtagFilter");
+        return registration;
+    }
+
+    /**
+     * Carries flash messages across the post-redirect-get in a signed cookie, so pages never need
+     * an HTTP session and any instance behind the load balancer can serve the redirect.
+     */
+    @Bean(name = DispatcherServlet.FLASH_MAP_MANAGER_BEAN_NAME)
+    public FlashMapManager flashMapManager(ObjectMapper objectMapper, @Value("${books.web.flash-secret:}") String secret) {
+        return new CookieFlashMapManager(objectMapper, secret);
+    }
+}
@@ -0,0 +1,31 @@
+package com.records.books.controllers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps service exceptions of the JSON API to RFC 9457 problem responses.
+ */
+@RestControllerAdvice(assignableTypes = {BookApiController.class, PublishingDateApiController.class})
+public class ApiExceptionHandler {
+    private static final Logger logger = LoggerFactory.getLogger(ApiExceptionHandler.class);
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail handleBadRequest(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ProblemDetail handleDataIntegrityViolation(DataIntegrityViolationException e) {
+        if (UniqueViolations.isUniqueViolation(e)) {
+            return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, "Duplicate data.");
+        }
+        logger.error("Data integrity violation", e);
+        return ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, "The data could not be saved.");
+    }
+}
@@ -0,0 +1,83 @@
+package com.records.books.controllers;
+
+import com.records.books.dto.BookListItem;
+import com.records.books.dto.BookRequest;
+import com.records.books.dto.BookSummary;
+import com.records.books.dto.KeysetPage;
+import com.records.books.dto.TitleUpdateRequest;
+import com.records.books.services.BookService;
+import com.records.books.services.PublishingDateService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * JSON API for books. Responses are compact DTOs, never entities, and carry ETags for conditional GETs.
+ */
+@RestController
+@RequestMapping("/api/books")
+public class BookApiController {
+
+    /** Largest batch accepted by the bulk endpoint; bigger feeds go through /books/import. */
+    public static final int MAX_BULK_SIZE = 1000;
+
+    private final BookService bookService;
+    private final PublishingDateService publishingDateService;
+
+    public BookApiController(BookService bookService, PublishingDateService publishingDateService) {
+        this.bookService = bookService;
+        this.publishingDateService = publishingDateService;
+    }
+
+    @GetMapping
+    public KeysetPage<BookListItem, Long> listBooks(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        return bookService.getBooksPage(after, limit);
+    }
+
+    @GetMapping("/{id}")
+    public BookListItem getBook(@PathVariable Long id) {
+        return bookService.getBook(id).orElseThrow(() -> notFound(id));
+    }
+
+    @PostMapping
+    public ResponseEntity<BookListItem> createBook(@Valid @RequestBody BookRequest request) {
+        BookListItem created = bookService.createBooks(List.of(request)).get(0);
+        return ResponseEntity
+                .created(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(created.getId()).toUri())
+                .body(created);
+    }
+
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<BookListItem> createBooks(
+            @RequestBody @NotEmpty @Size(max = MAX_BULK_SIZE) List<@Valid BookRequest> requests) {
+        return bookService.createBooks(requests);
+    }
+
+    @PatchMapping("/{id}/title")
+    public BookListItem updateTitle(@PathVariable Long id, @Valid @RequestBody TitleUpdateRequest request) {
+        if (!bookService.updateBookTitle(id, request.getTitle().trim())) {
+            throw notFound(id);
+        }
+        return bookService.getBook(id).orElseThrow(() -> notFound(id));
+    }
+
+    @GetMapping("/by-date/{date}")
+    public List<BookSummary> getBooksByDate(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return publishingDateService.getBooksByPublishingDate(date);
+    }
+
+    private static ResponseStatusException notFound(Long id) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Book " + id + " does not exist.");
+    }
+}
@@ -1,16 +1,40 @@
 package com.records.books.controllers;
 
+import com.records.books.dto.BookCount;
+import com.records.books.dto.BookListItem;
+import com.records.books.dto.BookOption;
+import com.records.books.dto.BookSearchResults;
+import com.records.books.dto.BookSummary;
+import com.records.books.dto.ImportReport;
+import com.records.books.dto.KeysetPage;
 import com.records.books.entities.Book;
 import com.records.books.entities.PublishingDate;
+import com.records.books.services.BookExportService;
+import com.records.books.services.BookCountBucket;
+import com.records.books.services.BookImportService;
 import com.records.books.services.BookService;
+import com.records.books.services.BookStatsService;
+import com.records.books.services.CatalogFormat;
+import com.records.books.services.CatalogVersion;
 import com.records.books.services.PublishingDateService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -21,16 +45,35 @@ public class BookController {
 
     private final BookService bookService;
     private final PublishingDateService publishingDateService;
-
-    public BookController(BookService bookService, PublishingDateService publishingDateService) {
+    private final BookImportService bookImportService;
+    private final BookExportService bookExportService;
+    private final BookStatsService bookStatsService;
+    private final CatalogVersion catalogVersion;
+
+    public BookController(BookService bookService, PublishingDateService publishingDateService,
+                          BookImportService bookImportService, BookExportService bookExportService,
+                          BookStatsService bookStatsService, CatalogVersion catalogVersion) {
         this.bookService = bookService;
         this.publishingDateService = publishingDateService;
+        this.bookImportService = bookImportService;
+        this.bookExportService = bookExportService;
+        this.bookStatsService = bookStatsService;
+        this.catalogVersion = catalogVersion;
     }
 
     
     @GetMapping
-    public String listBooks(Model model) {
-        model.addAttribute("books", bookService.getAllBooks());
+    public String listBooks(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit,
+            Model model, ServletWebRequest webRequest) {
+        if (CatalogConditionalGet.isNotModified(catalogVersion, webRequest, model)) {
+            return null;
+        }
+        KeysetPage<BookListItem, Long> page = bookService.getBooksPage(after, limit);
+        model.addAttribute("books", page.getItems());
+        model.addAttribute("nextAfter", page.getNextKey());
+        model.addAttribute("limit", KeysetPage.clampLimit(limit));
         return "books";
     }
 
@@ -71,6 +114,48 @@ public class BookController {
         return "redirect:/books";
     }
 
+    @GetMapping("/picker")
+    @ResponseBody
+    public KeysetPage<BookOption, BookOption> pickBooks(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(required = false) String afterTitle,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "20") int limit) {
+        return bookService.findBookOptions(q, afterTitle, afterId, limit);
+    }
+
+    /**
+     * Streams a CSV (text/csv) or NDJSON (application/x-ndjson) feed from the request body into the catalog.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @ResponseBody
+    public ImportReport importBooks(HttpServletRequest request) throws IOException {
+        CatalogFormat format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.APPLICATION_NDJSON) ? CatalogFormat.NDJSON : CatalogFormat.CSV;
+        try (Reader reader = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)) {
+            return bookImportService.importBooks(reader, format);
+        }
+    }
+
+    /**
+     * Streams the whole catalog as CSV or NDJSON straight to the response, one row at a time.
+     */
+    @GetMapping("/export")
+    public void exportBooks(@RequestParam(defaultValue = "csv") String format, HttpServletResponse response) throws IOException {
+        CatalogFormat exportFormat;
+        try {
+            exportFormat = CatalogFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        response.setContentType(exportFormat.getMediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"books." + exportFormat.name().toLowerCase() + "\"");
+        bookExportService.exportBooks(exportFormat, response.getWriter());
+    }
+
     @PostMapping("/updateBookTitle")
     public String updateBookTitle(
             @RequestParam Long bookId,
@@ -83,8 +168,11 @@ public class BookController {
         }
 
         try {
-            bookService.updateBookTitle(bookId, newTitle.trim());
-            redirectAttributes.addFlashAttribute("message", "✅ Book title updated successfully!");
+            if (bookService.updateBookTitle(bookId, newTitle.trim())) {
+                redirectAttributes.addFlashAttribute("message", "✅ Book title updated successfully!");
+            } else {
+                redirectAttributes.addFlashAttribute("error", "Failed to update book title: no book with ID " + bookId);
+            }
         } catch (IllegalArgumentException e) {
             redirectAttributes.addFlashAttribute("error", "Failed to update book title: " + e.getMessage());
         }
@@ -92,11 +180,65 @@ public class BookController {
         return "redirect:/books";
     }
 
+    /**
+     * Ranked full-text search over titles and genres, e.g. {@code /books/search?q=dune herbert*}.
+     */
+    @GetMapping("/search")
+    @ResponseBody
+    public BookSearchResults searchBooks(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return bookService.searchBooks(q, offset, limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Pages through the books published between two dates, ordered by date and then id.
+     * The next page is requested with the date and id of the returned next key.
+     */
+    @GetMapping("/range")
+    @ResponseBody
+    public KeysetPage<BookListItem, BookListItem> getBooksInRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDate,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        try {
+            return bookService.getBooksInRange(from, to, afterDate, afterId, limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Book counts per day, month, year or genre, optionally limited to a publishing date range.
+     */
+    @GetMapping("/stats")
+    @ResponseBody
+    public List<BookCount> getBookCounts(
+            @RequestParam(defaultValue = "month") String by,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return bookStatsService.countBooks(BookCountBucket.fromParameter(by), from, to);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @GetMapping("/books-by-date")
     public String getBooksByDate(
             @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
-            Model model) {
-        List<Book> books = publishingDateService.getBooksByPublishingDate(date);
+            Model model, ServletWebRequest webRequest) {
+        if (CatalogConditionalGet.isNotModified(catalogVersion, webRequest, model)) {
+            return null;
+        }
+        List<BookSummary> books = publishingDateService.getBooksByPublishingDate(date);
         model.addAttribute("books", books);
         model.addAttribute("selectedDate", date);
         return "books-by-date";
@@ -0,0 +1,39 @@
+package com.records.books.controllers;
+
+import com.records.books.services.CatalogVersion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.ui.Model;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Conditional GET support for the server-rendered catalog pages.
+ */
+final class CatalogConditionalGet {
+
+    private CatalogConditionalGet() {
+    }
+
+    /**
+     * Validates the request against the catalog version and sets the ETag, Last-Modified and
+     * {@code Cache-Control: no-cache} headers, so browsers revalidate instead of guessing freshness.
+     * Pages that carry a one-off flash message are always rendered.
+     * <p>
+     * Only the ETag answers with 304. Last-Modified has whole seconds, so an {@code If-Modified-Since}
+     * naming the second of a later write would match and serve the page from before it; such requests are
+     * always rendered. The header is rounded up to the next second, so it never predates the last change.
+     *
+     * @return true if a 304 response has been prepared and the handler should return null
+     */
+    static boolean isNotModified(CatalogVersion catalogVersion, ServletWebRequest request, Model model) {
+        if (model.containsAttribute("message") || model.containsAttribute("error")) {
+            return false;
+        }
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+            request.getResponse().setDateHeader(HttpHeaders.LAST_MODIFIED,
+                    -Math.floorDiv(-catalogVersion.getLastModified(), 1000L) * 1000L);
+        }
+        return request.checkNotModified(catalogVersion.getEtag());
+    }
+}
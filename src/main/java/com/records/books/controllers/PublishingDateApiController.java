@@ -0,0 +1,74 @@
+package com.records.books.controllers;
+
+import com.records.books.dto.KeysetPage;
+import com.records.books.dto.PublishingDateCatalogEntry;
+import com.records.books.dto.PublishingDateRequest;
+import com.records.books.entities.PublishingDate;
+import com.records.books.services.PublishingDateService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * JSON API for publishing dates. Each date is returned with summaries of its books.
+ */
+@RestController
+@RequestMapping("/api/publishing-dates")
+public class PublishingDateApiController {
+
+    private final PublishingDateService publishingDateService;
+
+    public PublishingDateApiController(PublishingDateService publishingDateService) {
+        this.publishingDateService = publishingDateService;
+    }
+
+    @GetMapping
+    public KeysetPage<PublishingDateCatalogEntry, LocalDate> listPublishingDates(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate after,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        return publishingDateService.getPublishingDateCatalog(after, limit);
+    }
+
+    @GetMapping("/{id}")
+    public PublishingDateCatalogEntry getPublishingDate(@PathVariable Long id) {
+        return publishingDateService.getPublishingDateEntry(id).orElseThrow(() -> notFound(id));
+    }
+
+    @PostMapping
+    public ResponseEntity<PublishingDateCatalogEntry> createPublishingDate(@Valid @RequestBody PublishingDateRequest request) {
+        PublishingDate publishingDate = new PublishingDate(request.getDate());
+        publishingDateService.savePublishingDate(publishingDate, request.getBookIds());
+        PublishingDateCatalogEntry created = publishingDateService.getPublishingDateEntry(publishingDate.getId())
+                .orElseThrow(() -> notFound(publishingDate.getId()));
+        return ResponseEntity
+                .created(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(created.getId()).toUri())
+                .body(created);
+    }
+
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<PublishingDateCatalogEntry> createPublishingDates(
+            @RequestBody @NotEmpty @Size(max = BookApiController.MAX_BULK_SIZE) List<@Valid PublishingDateRequest> requests) {
+        List<PublishingDate> publishingDates = requests.stream()
+                .map(request -> new PublishingDate(request.getDate()))
+                .toList();
+        List<List<Long>> bookIds = requests.stream()
+                .map(PublishingDateRequest::getBookIds)
+                .toList();
+        return publishingDateService.savePublishingDates(publishingDates, bookIds).stream()
+                .map(publishingDate -> new PublishingDateCatalogEntry(publishingDate.getId(), publishingDate.getDate()))
+                .toList();
+    }
+
+    private static ResponseStatusException notFound(Long id) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Publishing date " + id + " does not exist.");
+    }
+}
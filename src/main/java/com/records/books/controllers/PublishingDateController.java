@@ -1,18 +1,23 @@
 package com.records.books.controllers;
 
+import com.records.books.dto.KeysetPage;
+import com.records.books.dto.PublishingDateCatalogEntry;
 import com.records.books.entities.PublishingDate;
-import com.records.books.entities.Book;
+import com.records.books.services.BookService;
+import com.records.books.services.CatalogVersion;
 import com.records.books.services.PublishingDateService;
-import com.records.books.repositories.BookRepository;
-import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -20,182 +25,111 @@ import java.util.Optional;
 @Controller
 @RequestMapping("/publishingDates")
 public class PublishingDateController {
+    private static final Logger logger = LoggerFactory.getLogger(PublishingDateController.class);
 
     private final PublishingDateService publishingDateService;
-    private final BookRepository bookRepository;
+    private final BookService bookService;
+    private final CatalogVersion catalogVersion;
 
-    public PublishingDateController(PublishingDateService publishingDateService, BookRepository bookRepository) {
+    public PublishingDateController(PublishingDateService publishingDateService, BookService bookService,
+                                    CatalogVersion catalogVersion) {
         this.publishingDateService = publishingDateService;
-        this.bookRepository = bookRepository;
+        this.bookService = bookService;
+        this.catalogVersion = catalogVersion;
     }
 
   
     @GetMapping
-    public String listPublishingDates(Model model, HttpSession session) {
-        System.out.println("Received request to list publishing dates");
-        System.out.println("Session editingMode: " + session.getAttribute("editingMode"));
-        System.out.println("Session editId: " + session.getAttribute("editId"));
-
-        Boolean editingMode = (Boolean) session.getAttribute("editingMode");
-        Long editId = (Long) session.getAttribute("editId");
-
-        if (Boolean.TRUE.equals(editingMode) && editId != null) {
-            System.out.println("Restoring edit mode for ID: " + editId);
-            Optional<PublishingDate> publishingDateOpt = publishingDateService.getPublishingDateById(editId);
-            if (publishingDateOpt.isPresent()) {
-                model.addAttribute("publishingDates", publishingDateService.getAllPublishingDates());
-                model.addAttribute("publishingDate", publishingDateOpt.get());
-                model.addAttribute("books", bookRepository.findAll());
-                model.addAttribute("editingMode", true);
-                System.out.println("Returning publishing-dates.jsp in edit mode for ID: " + editId);
-                return "publishing-dates";
-            } else {
-                System.out.println("Publishing date not found for ID: " + editId + ", clearing session");
-                session.removeAttribute("editingMode");
-                session.removeAttribute("editId");
-            }
+    public String listPublishingDates(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate after,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit,
+            Model model, ServletWebRequest webRequest) {
+        if (CatalogConditionalGet.isNotModified(catalogVersion, webRequest, model)) {
+            return null;
         }
 
-        List<PublishingDate> publishingDates = publishingDateService.getAllPublishingDates();
-        System.out.println("Listing publishing dates: " + publishingDates.size() + " entries found");
-        model.addAttribute("publishingDates", publishingDates);
+        addCatalogPage(model, after, limit);
         model.addAttribute("publishingDate", new PublishingDate());
-        model.addAttribute("books", bookRepository.findAll());
         model.addAttribute("editingMode", false);
-        System.out.println("Returning publishing-dates.jsp in list mode with editingMode = false");
-
-        session.removeAttribute("editingMode");
-        session.removeAttribute("editId");
-        System.out.println("Session cleared, editingMode: " + session.getAttribute("editingMode") + ", editId: " + session.getAttribute("editId"));
-
         return "publishing-dates";
     }
 
-
+    /**
+     * Shows the catalog with the edit form for one date. The edit state lives in the URL only,
+     * so any instance can serve the page and a refresh keeps the form open.
+     */
     @GetMapping("/edit/{id}")
-    public String showEditPublishingDateForm(@PathVariable Long id, Model model, HttpSession session, RedirectAttributes redirectAttributes) {
-        System.out.println("Received edit request for ID: " + id);
-        Optional<PublishingDate> publishingDateOpt = publishingDateService.getPublishingDateById(id);
+    public String showEditPublishingDateForm(@PathVariable Long id, Model model, ServletWebRequest webRequest,
+                                             RedirectAttributes redirectAttributes) {
+        if (CatalogConditionalGet.isNotModified(catalogVersion, webRequest, model)) {
+            return null;
+        }
+        Optional<PublishingDate> publishingDateOpt = publishingDateService.getPublishingDateForUpdate(id);
         if (publishingDateOpt.isEmpty()) {
-            System.out.println("Publishing date not found for ID: " + id);
+            logger.debug("Publishing date not found for ID: {}", id);
             redirectAttributes.addFlashAttribute("error", "Invalid publishing date ID: " + id);
-            session.removeAttribute("editingMode");
-            session.removeAttribute("editId");
             return "redirect:/publishingDates";
         }
 
-        System.out.println("Publishing date found: " + publishingDateOpt.get().getDate());
-        model.addAttribute("publishingDates", publishingDateService.getAllPublishingDates());
+        addCatalogPage(model, null, KeysetPage.DEFAULT_LIMIT);
         model.addAttribute("publishingDate", publishingDateOpt.get());
-        model.addAttribute("books", bookRepository.findAll());
         model.addAttribute("editingMode", true);
-
-        session.setAttribute("editingMode", true);
-        session.setAttribute("editId", id);
-        System.out.println("Session updated, editingMode: " + session.getAttribute("editingMode") + ", editId: " + session.getAttribute("editId"));
-
-        System.out.println("Returning publishing-dates.jsp in edit mode for ID: " + id + " with editingMode = true");
         return "publishing-dates";
     }
 
 
     @PostMapping("/add")
     public String addPublishingDate(@Valid @ModelAttribute PublishingDate publishingDate, BindingResult result,
-                                    @RequestParam(value = "bookIds", required = false) List<Long> bookIds, Model model, HttpSession session, RedirectAttributes redirectAttributes) {
-        System.out.println("Received add request: " + publishingDate);
+                                    @RequestParam(value = "bookIds", required = false) List<Long> bookIds, Model model, RedirectAttributes redirectAttributes) {
         if (result.hasErrors()) {
-            System.out.println("Validation errors in addPublishingDate: " + result.getAllErrors());
-            model.addAttribute("publishingDates", publishingDateService.getAllPublishingDates());
-            model.addAttribute("publishingDate", publishingDate);
-            model.addAttribute("books", bookRepository.findAll());
-            model.addAttribute("editingMode", false);
-            model.addAttribute("error", "Invalid publishing date: " + result.getAllErrors());
-            session.removeAttribute("editingMode");
-            session.removeAttribute("editId");
-            return "publishing-dates";
+            logger.debug("Validation errors in addPublishingDate: {}", result.getAllErrors());
+            return showForm(model, publishingDate, bookIds, false, "Invalid publishing date: " + result.getAllErrors());
         }
         try {
-            List<Book> books = (bookIds != null && !bookIds.isEmpty()) ? bookRepository.findAllById(bookIds) : List.of();
-            publishingDateService.savePublishingDate(publishingDate, books);
-            for (Book book : books) {
-                book.setPublishingDate(publishingDate);
-                bookRepository.save(book);
-            }
+            publishingDateService.savePublishingDate(publishingDate, bookIds != null ? bookIds : List.of());
             redirectAttributes.addFlashAttribute("message", "Publishing date added successfully!");
         } catch (DataIntegrityViolationException e) {
-            System.out.println("Data integrity violation in addPublishingDate: " + e.getMessage());
-            model.addAttribute("publishingDates", publishingDateService.getAllPublishingDates());
-            model.addAttribute("publishingDate", publishingDate);
-            model.addAttribute("books", bookRepository.findAll());
-            model.addAttribute("editingMode", false);
-            model.addAttribute("error", "Error: Duplicate or invalid date.");
-            session.removeAttribute("editingMode");
-            session.removeAttribute("editId");
-            return "publishing-dates";
+            if (!UniqueViolations.isUniqueViolation(e)) {
+                logger.error("Data integrity violation in addPublishingDate", e);
+                throw e;
+            }
+            logger.debug("Duplicate date in addPublishingDate: {}", e.getMessage());
+            return showForm(model, publishingDate, bookIds, false, "Error: Duplicate date.");
         }
-        session.removeAttribute("editingMode");
-        session.removeAttribute("editId");
         return "redirect:/publishingDates";
     }
 
     @PostMapping("/update")
     public String updatePublishingDate(@Valid @ModelAttribute PublishingDate publishingDate, BindingResult result,
-                                       @RequestParam(value = "bookIds", required = false) List<Long> bookIds, Model model, HttpSession session, RedirectAttributes redirectAttributes) {
-        System.out.println("Received update request for ID: " + publishingDate.getId());
+                                       @RequestParam(value = "bookIds", required = false) List<Long> bookIds, Model model, RedirectAttributes redirectAttributes) {
         if (result.hasErrors()) {
-            System.out.println("Validation errors in updatePublishingDate: " + result.getAllErrors());
-            model.addAttribute("publishingDates", publishingDateService.getAllPublishingDates());
-            model.addAttribute("publishingDate", publishingDate);
-            model.addAttribute("books", bookRepository.findAll());
-            model.addAttribute("editingMode", true);
-            model.addAttribute("error", "Invalid publishing date: " + result.getAllErrors());
-            session.setAttribute("editingMode", true);
-            session.setAttribute("editId", publishingDate.getId());
-            return "publishing-dates";
+            logger.debug("Validation errors in updatePublishingDate: {}", result.getAllErrors());
+            return showForm(model, publishingDate, bookIds, true, "Invalid publishing date: " + result.getAllErrors());
         }
         if (publishingDate.getId() == null) {
-            System.out.println("Publishing date ID is null in updatePublishingDate");
-            model.addAttribute("publishingDates", publishingDateService.getAllPublishingDates());
-            model.addAttribute("publishingDate", publishingDate);
-            model.addAttribute("books", bookRepository.findAll());
-            model.addAttribute("editingMode", true);
-            model.addAttribute("error", "Publishing date ID cannot be null.");
-            session.setAttribute("editingMode", true);
-            session.setAttribute("editId", publishingDate.getId());
-            return "publishing-dates";
+            logger.debug("Publishing date ID is null in updatePublishingDate");
+            return showForm(model, publishingDate, bookIds, true, "Publishing date ID cannot be null.");
         }
 
         try {
-            List<Book> books = (bookIds != null && !bookIds.isEmpty()) ? bookRepository.findAllById(bookIds) : List.of();
-            publishingDateService.updatePublishingDate(publishingDate, books);
-            for (Book book : books) {
-                book.setPublishingDate(publishingDate);
-                bookRepository.save(book);
-            }
+            publishingDateService.updatePublishingDate(publishingDate, bookIds != null ? bookIds : List.of());
             redirectAttributes.addFlashAttribute("message", "Publishing date updated successfully!");
         } catch (DataIntegrityViolationException e) {
-            System.out.println("Data integrity violation in updatePublishingDate: " + e.getMessage());
-            model.addAttribute("publishingDates", publishingDateService.getAllPublishingDates());
-            model.addAttribute("publishingDate", publishingDate);
-            model.addAttribute("books", bookRepository.findAll());
-            model.addAttribute("editingMode", true);
-            model.addAttribute("error", "Error: Duplicate or invalid date.");
-            session.setAttribute("editingMode", true);
-            session.setAttribute("editId", publishingDate.getId());
-            return "publishing-dates";
+            if (!UniqueViolations.isUniqueViolation(e)) {
+                logger.error("Data integrity violation in updatePublishingDate", e);
+                throw e;
+            }
+            logger.debug("Duplicate date in updatePublishingDate: {}", e.getMessage());
+            return showForm(model, publishingDate, bookIds, true, "Error: Duplicate date.");
         } catch (IllegalArgumentException e) {
-            System.out.println("Illegal argument in updatePublishingDate: " + e.getMessage());
-            model.addAttribute("publishingDates", publishingDateService.getAllPublishingDates());
-            model.addAttribute("publishingDate", publishingDate);
-            model.addAttribute("books", bookRepository.findAll());
-            model.addAttribute("editingMode", true);
-            model.addAttribute("error", e.getMessage());
-            session.setAttribute("editingMode", true);
-            session.setAttribute("editId", publishingDate.getId());
-            return "publishing-dates";
+            logger.debug("Illegal argument in updatePublishingDate: {}", e.getMessage());
+            return showForm(model, publishingDate, bookIds, true, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            logger.debug("Stale version in updatePublishingDate: {}", e.getMessage());
+            redirectAttributes.addFlashAttribute("error",
+                    "This publishing date was changed by someone else. Review the current version and try again.");
+            return "redirect:/publishingDates/edit/" + publishingDate.getId();
         }
-        session.removeAttribute("editingMode");
-        session.removeAttribute("editId");
         return "redirect:/publishingDates";
     }
 
@@ -203,8 +137,7 @@ public class PublishingDateController {
     @GetMapping("/search")
     public String searchPublishingDateByDate(
             @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
-            Model model, HttpSession session, RedirectAttributes redirectAttributes) {
-        System.out.println("Received search request for date: " + date);
+            Model model, RedirectAttributes redirectAttributes) {
         Optional<PublishingDate> publishingDateOpt = publishingDateService.findByDate(date);
         if (publishingDateOpt.isEmpty()) {
             redirectAttributes.addFlashAttribute("error", "No publishing date found for " + date);
@@ -212,16 +145,31 @@ public class PublishingDateController {
         }
 
         PublishingDate publishingDate = publishingDateOpt.get();
-        model.addAttribute("publishingDates", publishingDateService.getAllPublishingDates());
+        addCatalogPage(model, null, KeysetPage.DEFAULT_LIMIT);
         model.addAttribute("publishingDate", publishingDate);
-        model.addAttribute("books", bookRepository.findAll());
         model.addAttribute("editingMode", true);
+        return "publishing-dates";
+    }
 
-        session.setAttribute("editingMode", true);
-        session.setAttribute("editId", publishingDate.getId());
-        System.out.println("Session updated, editingMode: " + session.getAttribute("editingMode") + ", editId: " + session.getAttribute("editId"));
-
-        System.out.println("Returning publishing-dates.jsp in edit mode for date: " + date);
+    /**
+     * Re-renders the catalog with the submitted form and an error, keeping the user's input. The bound date
+     * carries no books, so the submitted ones are loaded again as the picker's selection.
+     */
+    private String showForm(Model model, PublishingDate publishingDate, List<Long> bookIds, boolean editingMode,
+                            String error) {
+        model.addAttribute("selectedBooks",
+                bookIds == null || bookIds.isEmpty() ? List.of() : bookService.getBookOptions(bookIds));
+        addCatalogPage(model, null, KeysetPage.DEFAULT_LIMIT);
+        model.addAttribute("publishingDate", publishingDate);
+        model.addAttribute("editingMode", editingMode);
+        model.addAttribute("error", error);
         return "publishing-dates";
     }
+
+    private void addCatalogPage(Model model, LocalDate after, int limit) {
+        KeysetPage<PublishingDateCatalogEntry, LocalDate> page = publishingDateService.getPublishingDateCatalog(after, limit);
+        model.addAttribute("publishingDates", page.getItems());
+        model.addAttribute("nextAfter", page.getNextKey());
+        model.addAttribute("limit", KeysetPage.clampLimit(limit));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.records.books.controllers;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import java.sql.SQLException;
+
+/**
+ * Tells duplicates, which the user can fix, from other integrity violations, which are server errors.
+ */
+final class UniqueViolations {
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+
+    private UniqueViolations() {
+    }
+
+    static boolean isUniqueViolation(DataIntegrityViolationException e) {
+        if (e instanceof DuplicateKeyException) {
+            return true;
+        }
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException
+                    && (UNIQUE_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())
+                    || sqlException.getErrorCode() == MYSQL_DUPLICATE_ENTRY)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,42 @@
+package com.records.books.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Number of books in one aggregate bucket: a day (2024-03-01), month (2024-03), year (2024) or genre.
+ */
+public class BookCount {
+
+    private final String bucket;
+    private final long count;
+
+    public BookCount(String bucket, Long count) {
+        this.bucket = bucket;
+        this.count = count == null ? 0 : count;
+    }
+
+    public BookCount(LocalDate day, Long count) {
+        this(day.toString(), count);
+    }
+
+    public BookCount(Integer year, Integer month, Long count) {
+        this(String.format("%04d-%02d", year, month), count);
+    }
+
+    public BookCount(Integer year, Long count) {
+        this(String.format("%04d", year), count);
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "BookCount{bucket='" + bucket + "', count=" + count + "}";
+    }
+}
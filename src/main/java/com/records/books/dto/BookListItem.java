@@ -0,0 +1,41 @@
+package com.records.books.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only row of the books list page.
+ */
+public class BookListItem {
+
+    private final Long id;
+    private final String title;
+    private final String genre;
+    private final LocalDate publishingDate;
+
+    public BookListItem(Long id, String title, String genre, LocalDate publishingDate) {
+        this.id = id;
+        this.title = title;
+        this.genre = genre;
+        this.publishingDate = publishingDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public LocalDate getPublishingDate() {
+        return publishingDate;
+    }
+
+    public BookListItem withTitle(String title) {
+        return new BookListItem(id, title, genre, publishingDate);
+    }
+}
@@ -0,0 +1,23 @@
+package com.records.books.dto;
+
+/**
+ * An (id, title) pair offered by the book picker.
+ */
+public class BookOption {
+
+    private final Long id;
+    private final String title;
+
+    public BookOption(Long id, String title) {
+        this.id = id;
+        this.title = title;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+}
@@ -0,0 +1,52 @@
+package com.records.books.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Request body for creating a book through the JSON API.
+ */
+public class BookRequest {
+
+    @NotBlank
+    @Size(max = 255)
+    private String title;
+
+    @Size(max = 255)
+    private String genre;
+
+    private Long publishingDateId;
+
+    public BookRequest() {
+    }
+
+    public BookRequest(String title, String genre, Long publishingDateId) {
+        this.title = title;
+        this.genre = genre;
+        this.publishingDateId = publishingDateId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public void setGenre(String genre) {
+        this.genre = genre;
+    }
+
+    public Long getPublishingDateId() {
+        return publishingDateId;
+    }
+
+    public void setPublishingDateId(Long publishingDateId) {
+        this.publishingDateId = publishingDateId;
+    }
+}
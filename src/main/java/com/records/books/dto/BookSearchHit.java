@@ -0,0 +1,40 @@
+package com.records.books.dto;
+
+/**
+ * One ranked full-text search result, read from the search index without touching the database.
+ */
+public class BookSearchHit {
+
+    private final Long id;
+    private final String title;
+    private final String genre;
+    private final float score;
+
+    public BookSearchHit(Long id, String title, String genre, float score) {
+        this.id = id;
+        this.title = title;
+        this.genre = genre;
+        this.score = score;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public float getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return "BookSearchHit{id=" + id + ", title='" + title + "', score=" + score + "}";
+    }
+}
@@ -0,0 +1,39 @@
+package com.records.books.dto;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results. Relevance order has no stable key, so pages are addressed by
+ * offset; the offset is capped by the search index's result window.
+ */
+public class BookSearchResults {
+
+    private final List<BookSearchHit> hits;
+    private final long totalHits;
+    private final Integer nextOffset;
+
+    public BookSearchResults(List<BookSearchHit> hits, long totalHits, Integer nextOffset) {
+        this.hits = hits;
+        this.totalHits = totalHits;
+        this.nextOffset = nextOffset;
+    }
+
+    public List<BookSearchHit> getHits() {
+        return hits;
+    }
+
+    /**
+     * The number of matching books; exact up to 1,000 and a lower bound beyond that.
+     */
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    public Integer getNextOffset() {
+        return nextOffset;
+    }
+
+    public boolean isHasNext() {
+        return nextOffset != null;
+    }
+}
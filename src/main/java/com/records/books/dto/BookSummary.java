@@ -0,0 +1,38 @@
+package com.records.books.dto;
+
+/**
+ * Lightweight, read-only view of a book used by list and catalog pages.
+ */
+public class BookSummary {
+
+    private final Long id;
+    private final String title;
+    private final String genre;
+
+    public BookSummary(Long id, String title, String genre) {
+        this.id = id;
+        this.title = title;
+        this.genre = genre;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public BookSummary withTitle(String title) {
+        return new BookSummary(id, title, genre);
+    }
+
+    @Override
+    public String toString() {
+        return "BookSummary{id=" + id + ", title='" + title + "', genre='" + genre + "'}";
+    }
+}
@@ -0,0 +1,50 @@
+package com.records.books.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Flat row of the publishing date catalog: one row per (publishing date, book) pair, with the number of
+ * books the date has in all.
+ */
+public class CatalogRow {
+
+    private final Long publishingDateId;
+    private final LocalDate date;
+    private final Long bookId;
+    private final String title;
+    private final String genre;
+    private final long bookCount;
+
+    public CatalogRow(Long publishingDateId, LocalDate date, Long bookId, String title, String genre, long bookCount) {
+        this.publishingDateId = publishingDateId;
+        this.date = date;
+        this.bookId = bookId;
+        this.title = title;
+        this.genre = genre;
+        this.bookCount = bookCount;
+    }
+
+    public Long getPublishingDateId() {
+        return publishingDateId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public long getBookCount() {
+        return bookCount;
+    }
+}
@@ -0,0 +1,80 @@
+package com.records.books.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: how many rows were read, written and rejected, and how fast.
+ */
+public class ImportReport {
+
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private long publishingDatesCreated;
+    private long elapsedMillis;
+    private final List<String> errors = new ArrayList<>();
+
+    public void rowRead() {
+        rowsRead++;
+    }
+
+    public void imported(int rows) {
+        imported += rows;
+    }
+
+    public void publishingDatesCreated(int dates) {
+        publishingDatesCreated += dates;
+    }
+
+    public void reject(long lineNumber, String reason) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("Line " + lineNumber + ": " + reason);
+        }
+    }
+
+    public void finish(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getPublishingDatesCreated() {
+        return publishingDatesCreated;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? imported : imported * 1000 / elapsedMillis;
+    }
+
+    /**
+     * Returns the first {@value #MAX_REPORTED_ERRORS} rejection reasons.
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{rowsRead=" + rowsRead + ", imported=" + imported + ", rejected=" + rejected +
+               ", publishingDatesCreated=" + publishingDatesCreated + ", elapsedMillis=" + elapsedMillis +
+               ", rowsPerSecond=" + getRowsPerSecond() + "}";
+    }
+}
@@ -0,0 +1,45 @@
+package com.records.books.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) paginated listing.
+ *
+ * @param <T> the type of the items on the page
+ * @param <K> the type of the key the listing is ordered by
+ */
+public class KeysetPage<T, K> {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private final List<T> items;
+    private final K nextKey;
+
+    public KeysetPage(List<T> items, K nextKey) {
+        this.items = items;
+        this.nextKey = nextKey;
+    }
+
+    /**
+     * Clamps a requested page size to the range [1, MAX_LIMIT].
+     */
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the key to pass as {@code after} to fetch the next page, or null on the last page.
+     */
+    public K getNextKey() {
+        return nextKey;
+    }
+
+    public boolean isHasNext() {
+        return nextKey != null;
+    }
+}
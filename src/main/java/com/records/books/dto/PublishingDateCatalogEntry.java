@@ -0,0 +1,47 @@
+package com.records.books.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A publishing date together with the books assigned to it, as rendered on the publishing dates page.
+ * The catalog carries only the first books of each date; {@link #getBookCount()} tells how many it has.
+ */
+public class PublishingDateCatalogEntry {
+
+    private final Long id;
+    private final LocalDate date;
+    private final List<BookSummary> books = new ArrayList<>();
+    private long bookCount;
+
+    public PublishingDateCatalogEntry(Long id, LocalDate date) {
+        this.id = id;
+        this.date = date;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public List<BookSummary> getBooks() {
+        return books;
+    }
+
+    public long getBookCount() {
+        return Math.max(bookCount, books.size());
+    }
+
+    public void setBookCount(long bookCount) {
+        this.bookCount = bookCount;
+    }
+
+    @Override
+    public String toString() {
+        return "PublishingDateCatalogEntry{id=" + id + ", date=" + date + ", books=" + books.size() + " of " + getBookCount() + "}";
+    }
+}
@@ -0,0 +1,33 @@
+package com.records.books.dto;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request body for creating a publishing date, optionally with the books to move onto it.
+ */
+public class PublishingDateRequest {
+
+    @NotNull
+    private LocalDate date;
+
+    private List<Long> bookIds = new ArrayList<>();
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public List<Long> getBookIds() {
+        return bookIds;
+    }
+
+    public void setBookIds(List<Long> bookIds) {
+        this.bookIds = bookIds == null ? new ArrayList<>() : bookIds;
+    }
+}
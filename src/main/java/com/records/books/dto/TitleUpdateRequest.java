@@ -0,0 +1,22 @@
+package com.records.books.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Request body for renaming a book through the JSON API.
+ */
+public class TitleUpdateRequest {
+
+    @NotBlank
+    @Size(max = 255)
+    private String title;
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+}
@@ -1,13 +1,20 @@
 package com.records.books.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "books")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_title", columnList = "title"),
+        @Index(name = "idx_books_publishing_date", columnList = "publishing_date_id")
+})
 public class Book {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("books_seq")
     private Long id;
 
     @Column(nullable = false)
@@ -20,6 +27,9 @@ public class Book {
     @JoinColumn(name = "publishing_date_id")
     private PublishingDate publishingDate;
 
+    @Version
+    private long version;
+
     // Constructors
     public Book() {
     }
@@ -62,6 +72,14 @@ public class Book {
         this.publishingDate = publishingDate;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Book{id=" + id + ", title='" + title + "', genre='" + genre + "', publishingDateId=" + 
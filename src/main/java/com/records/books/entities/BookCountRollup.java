@@ -0,0 +1,82 @@
+package com.records.books.entities;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Precomputed number of books per publishing day and genre, maintained incrementally by the
+ * write paths when {@code books.rollup.enabled=true}. Books without a genre are counted under
+ * {@link #NO_GENRE}, since the genre is part of the primary key.
+ */
+@Entity
+@Table(name = "book_count_rollup")
+@IdClass(BookCountRollup.Key.class)
+public class BookCountRollup {
+
+    public static final String NO_GENRE = "";
+
+    @Id
+    @Column(name = "publishing_day")
+    private LocalDate publishingDay;
+
+    @Id
+    @Column(nullable = false)
+    private String genre;
+
+    @Column(name = "book_count", nullable = false)
+    private long bookCount;
+
+    protected BookCountRollup() {
+    }
+
+    public LocalDate getPublishingDay() {
+        return publishingDay;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public long getBookCount() {
+        return bookCount;
+    }
+
+    public static class Key implements Serializable {
+        private LocalDate publishingDay;
+        private String genre;
+
+        public Key() {
+        }
+
+        public Key(LocalDate publishingDay, String genre) {
+            this.publishingDay = publishingDay;
+            this.genre = genre;
+        }
+
+        public LocalDate getPublishingDay() {
+            return publishingDay;
+        }
+
+        public String getGenre() {
+            return genre;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(publishingDay, key.publishingDay) && Objects.equals(genre, key.genre);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(publishingDay, genre);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.records.books.entities;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * A catalog change waiting in the outbox, written in the transaction that makes the change and deleted
+ * once relayed (see OutboxRelay). The id is assigned by the database when the event is inserted, after
+ * the changed row is written and locked, so the events of one aggregate are numbered in commit order.
+ */
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 40)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 40)
+    private String eventType;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    protected OutboxEvent() {
+    }
+
+    public OutboxEvent(String aggregateType, Long aggregateId, String eventType, String payload, Instant createdAt) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    /**
+     * The state of the aggregate after the change, as JSON.
+     */
+    public String getPayload() {
+        return payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{id=" + id + ", " + aggregateType + "#" + aggregateId + ", eventType=" + eventType + "}";
+    }
+}
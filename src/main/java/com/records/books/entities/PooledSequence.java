@@ -0,0 +1,25 @@
+package com.records.books.entities;
+
+import org.hibernate.annotations.IdGeneratorType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Generates identifiers from a pooled sequence so that Hibernate can batch inserts.
+ * On databases without native sequences (MySQL) the sequence is emulated with a table.
+ * The allocation size is read from the {@value PooledSequenceGenerator#ALLOCATION_SIZE_SETTING} setting.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface PooledSequence {
+
+    /**
+     * The name of the database sequence, or of the table emulating it.
+     */
+    String value();
+}
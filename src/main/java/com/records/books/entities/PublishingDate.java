@@ -1,24 +1,32 @@
 package com.records.books.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "publishing-date")
 @Table(name = "publishing_dates")
 public class PublishingDate {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("publishing_dates_seq")
     private Long id;
 
     @Column(nullable = false, unique = true)
     private LocalDate date;
 
     @OneToMany(mappedBy = "publishingDate")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "publishing-date-books")
     private List<Book> books = new ArrayList<>();
 
+    @Version
+    private long version;
+
     // Constructors
     public PublishingDate() {
     }
@@ -52,6 +60,14 @@ public class PublishingDate {
         this.books = books;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     
     @Override
 public String toString() {
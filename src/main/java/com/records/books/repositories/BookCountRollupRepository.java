@@ -0,0 +1,76 @@
+package com.records.books.repositories;
+
+import com.records.books.dto.BookCount;
+import com.records.books.entities.BookCountRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Upserts and reads for the book_count_rollup table. The upserts use MySQL's
+ * INSERT ... ON DUPLICATE KEY UPDATE, which H2 also accepts in MySQL mode. They declare the one table
+ * they write, so Hibernate does not clear the whole second-level cache after each native statement.
+ */
+public interface BookCountRollupRepository extends JpaRepository<BookCountRollup, BookCountRollup.Key> {
+    String TABLE = "book_count_rollup";
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = TABLE))
+    @Modifying
+    @Query(value = "INSERT INTO book_count_rollup (publishing_day, genre, book_count) VALUES (:day, :genre, :delta) " +
+                   "ON DUPLICATE KEY UPDATE book_count = book_count + VALUES(book_count)", nativeQuery = true)
+    int add(@Param("day") LocalDate day, @Param("genre") String genre, @Param("delta") long delta);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = TABLE))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO book_count_rollup (publishing_day, genre, book_count) " +
+                   "SELECT pd.date, COALESCE(b.genre, ''), :delta * COUNT(*) FROM books b " +
+                   "JOIN publishing_dates pd ON pd.id = b.publishing_date_id WHERE b.id IN :bookIds " +
+                   "GROUP BY pd.date, COALESCE(b.genre, '') " +
+                   "ON DUPLICATE KEY UPDATE book_count = book_count + VALUES(book_count)", nativeQuery = true)
+    int addBooks(@Param("bookIds") Collection<Long> bookIds, @Param("delta") long delta);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = TABLE))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO book_count_rollup (publishing_day, genre, book_count) " +
+                   "SELECT pd.date, COALESCE(b.genre, ''), :delta * COUNT(*) FROM books b " +
+                   "JOIN publishing_dates pd ON pd.id = b.publishing_date_id WHERE pd.id = :publishingDateId " +
+                   "GROUP BY pd.date, COALESCE(b.genre, '') " +
+                   "ON DUPLICATE KEY UPDATE book_count = book_count + VALUES(book_count)", nativeQuery = true)
+    int addPublishingDate(@Param("publishingDateId") Long publishingDateId, @Param("delta") long delta);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = TABLE))
+    @Modifying
+    @Query(value = "INSERT INTO book_count_rollup (publishing_day, genre, book_count) " +
+                   "SELECT pd.date, COALESCE(b.genre, ''), COUNT(*) FROM books b " +
+                   "JOIN publishing_dates pd ON pd.id = b.publishing_date_id " +
+                   "GROUP BY pd.date, COALESCE(b.genre, '')", nativeQuery = true)
+    int rebuild();
+
+    @Query("SELECT new com.records.books.dto.BookCount(r.publishingDay, SUM(r.bookCount)) FROM BookCountRollup r " +
+           "WHERE r.publishingDay BETWEEN :from AND :to " +
+           "GROUP BY r.publishingDay HAVING SUM(r.bookCount) > 0 ORDER BY r.publishingDay")
+    List<BookCount> countByDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.records.books.dto.BookCount(YEAR(r.publishingDay), MONTH(r.publishingDay), SUM(r.bookCount)) " +
+           "FROM BookCountRollup r WHERE r.publishingDay BETWEEN :from AND :to " +
+           "GROUP BY YEAR(r.publishingDay), MONTH(r.publishingDay) HAVING SUM(r.bookCount) > 0 " +
+           "ORDER BY YEAR(r.publishingDay), MONTH(r.publishingDay)")
+    List<BookCount> countByMonth(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.records.books.dto.BookCount(YEAR(r.publishingDay), SUM(r.bookCount)) " +
+           "FROM BookCountRollup r WHERE r.publishingDay BETWEEN :from AND :to " +
+           "GROUP BY YEAR(r.publishingDay) HAVING SUM(r.bookCount) > 0 ORDER BY YEAR(r.publishingDay)")
+    List<BookCount> countByYear(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.records.books.dto.BookCount(NULLIF(r.genre, ''), SUM(r.bookCount)) " +
+           "FROM BookCountRollup r WHERE r.publishingDay BETWEEN :from AND :to " +
+           "GROUP BY r.genre HAVING SUM(r.bookCount) > 0 ORDER BY r.genre")
+    List<BookCount> countByGenre(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
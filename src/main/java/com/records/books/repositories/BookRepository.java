@@ -1,14 +1,150 @@
 package com.records.books.repositories;
 
+import com.records.books.dto.BookCount;
+import com.records.books.dto.BookListItem;
+import com.records.books.dto.BookOption;
+import com.records.books.dto.BookSummary;
+import com.records.books.dto.PublishingDateCatalogEntry;
 import com.records.books.entities.Book;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
 
-    @Query("SELECT DISTINCT b FROM Book b JOIN FETCH b.publishingDate pd WHERE pd.date = :date")
-    List<Book> findBooksByPublishingDate(@Param("date") LocalDate date);
-}
\ No newline at end of file
+    /**
+     * Rows fetched per round trip when streaming the catalog. MySQL only honours it with useCursorFetch=true.
+     */
+    String EXPORT_FETCH_SIZE = "1000";
+
+    /**
+     * Query space declared by bulk statements that change known rows of books or publishing dates. Declaring
+     * their tables would make Hibernate drop every cached book or date after each statement; the callers lock
+     * and release the cache entries of the rows they change instead (see SecondLevelCacheInvalidator).
+     */
+    String BULK_UPDATE_SPACE = "catalog_bulk_update";
+
+    /**
+     * Reads a book with its row locked until the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Book> findForUpdateById(Long id);
+
+    /**
+     * Reads books with their rows locked until the end of the transaction, in id order so that
+     * concurrent callers take the locks in the same order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Book> findByIdInOrderById(Collection<Long> ids);
+
+    /**
+     * Moves books to a publishing date. Their versions are bumped, so an editor holding one of the books
+     * cannot move it back unnoticed.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = BULK_UPDATE_SPACE))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE books SET publishing_date_id = :publishingDateId, version = version + 1 WHERE id IN :bookIds",
+           nativeQuery = true)
+    int assignPublishingDate(@Param("publishingDateId") Long publishingDateId, @Param("bookIds") Collection<Long> bookIds);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = BULK_UPDATE_SPACE))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE books SET publishing_date_id = NULL, version = version + 1 WHERE id IN :bookIds",
+           nativeQuery = true)
+    int clearPublishingDate(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT b.id FROM Book b WHERE b.publishingDate.id = :publishingDateId ORDER BY b.id")
+    List<Long> findIdsByPublishingDateId(@Param("publishingDateId") Long publishingDateId);
+
+    /**
+     * The publishing dates the given books are assigned to, as (id, date) entries without books.
+     */
+    @Query("SELECT DISTINCT new com.records.books.dto.PublishingDateCatalogEntry(pd.id, pd.date) " +
+           "FROM Book b JOIN b.publishingDate pd WHERE b.id IN :bookIds")
+    List<PublishingDateCatalogEntry> findPublishingDatesOfBooks(@Param("bookIds") Collection<Long> bookIds);
+
+    /**
+     * Books published on the given date as (id, title, genre) rows, resolved through the unique index
+     * on publishing_dates.date and idx_books_publishing_date in a single statement.
+     */
+    @Query("SELECT new com.records.books.dto.BookSummary(b.id, b.title, b.genre) " +
+           "FROM Book b JOIN b.publishingDate pd WHERE pd.date = :date ORDER BY b.id")
+    List<BookSummary> findBooksByPublishingDate(@Param("date") LocalDate date);
+
+    @Query("SELECT new com.records.books.dto.BookListItem(b.id, b.title, b.genre, pd.date) " +
+           "FROM Book b LEFT JOIN b.publishingDate pd ORDER BY b.id")
+    List<BookListItem> findFirstPage(Limit limit);
+
+    @Query("SELECT new com.records.books.dto.BookListItem(b.id, b.title, b.genre, pd.date) " +
+           "FROM Book b LEFT JOIN b.publishingDate pd WHERE b.id > :after ORDER BY b.id")
+    List<BookListItem> findPageAfter(@Param("after") Long after, Limit limit);
+
+    @Query("SELECT new com.records.books.dto.BookListItem(b.id, b.title, b.genre, pd.date) " +
+           "FROM Book b LEFT JOIN b.publishingDate pd WHERE b.id = :id")
+    Optional<BookListItem> findItemById(@Param("id") Long id);
+
+    @Query("SELECT new com.records.books.dto.BookListItem(b.id, b.title, b.genre, pd.date) " +
+           "FROM Book b JOIN b.publishingDate pd WHERE pd.date BETWEEN :from AND :to ORDER BY pd.date, b.id")
+    List<BookListItem> findFirstRangePage(@Param("from") LocalDate from, @Param("to") LocalDate to, Limit limit);
+
+    @Query("SELECT new com.records.books.dto.BookListItem(b.id, b.title, b.genre, pd.date) " +
+           "FROM Book b JOIN b.publishingDate pd WHERE pd.date BETWEEN :from AND :to " +
+           "AND (pd.date > :afterDate OR (pd.date = :afterDate AND b.id > :afterId)) ORDER BY pd.date, b.id")
+    List<BookListItem> findRangePageAfter(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                          @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId,
+                                          Limit limit);
+
+    @Query("SELECT new com.records.books.dto.BookCount(pd.date, COUNT(b)) FROM Book b JOIN b.publishingDate pd " +
+           "WHERE pd.date BETWEEN :from AND :to GROUP BY pd.date ORDER BY pd.date")
+    List<BookCount> countByDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.records.books.dto.BookCount(YEAR(pd.date), MONTH(pd.date), COUNT(b)) " +
+           "FROM Book b JOIN b.publishingDate pd WHERE pd.date BETWEEN :from AND :to " +
+           "GROUP BY YEAR(pd.date), MONTH(pd.date) ORDER BY YEAR(pd.date), MONTH(pd.date)")
+    List<BookCount> countByMonth(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.records.books.dto.BookCount(YEAR(pd.date), COUNT(b)) FROM Book b JOIN b.publishingDate pd " +
+           "WHERE pd.date BETWEEN :from AND :to GROUP BY YEAR(pd.date) ORDER BY YEAR(pd.date)")
+    List<BookCount> countByYear(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.records.books.dto.BookCount(b.genre, COUNT(b)) FROM Book b JOIN b.publishingDate pd " +
+           "WHERE pd.date BETWEEN :from AND :to GROUP BY b.genre ORDER BY b.genre")
+    List<BookCount> countByGenre(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.records.books.dto.BookListItem(b.id, b.title, b.genre, pd.date) " +
+           "FROM Book b LEFT JOIN b.publishingDate pd ORDER BY b.id")
+    Stream<BookListItem> streamCatalog();
+
+    /**
+     * Reads the given books as picker options, in title order and without locking them.
+     */
+    @Query("SELECT new com.records.books.dto.BookOption(b.id, b.title) FROM Book b " +
+           "WHERE b.id IN :ids ORDER BY b.title, b.id")
+    List<BookOption> findOptionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.records.books.dto.BookOption(b.id, b.title) FROM Book b " +
+           "WHERE b.title LIKE :prefix ESCAPE '!' ORDER BY b.title, b.id")
+    List<BookOption> findOptionsByTitlePrefix(@Param("prefix") String prefix, Limit limit);
+
+    @Query("SELECT new com.records.books.dto.BookOption(b.id, b.title) FROM Book b " +
+           "WHERE b.title LIKE :prefix ESCAPE '!' " +
+           "AND (b.title > :afterTitle OR (b.title = :afterTitle AND b.id > :afterId)) " +
+           "ORDER BY b.title, b.id")
+    List<BookOption> findOptionsByTitlePrefixAfter(@Param("prefix") String prefix,
+                                                   @Param("afterTitle") String afterTitle,
+                                                   @Param("afterId") Long afterId,
+                                                   Limit limit);
+}
@@ -0,0 +1,18 @@
+package com.records.books.repositories;
+
+import com.records.books.entities.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Reads the oldest events with their rows locked until the end of the transaction, so relays on
+     * other nodes wait instead of delivering the same batch out of order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<OutboxEvent> findAllByOrderByIdAsc(Limit limit);
+}
@@ -1,18 +1,69 @@
 package com.records.books.repositories;
 
+import com.records.books.dto.CatalogRow;
+import com.records.books.dto.PublishingDateCatalogEntry;
 import com.records.books.entities.PublishingDate;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PublishingDateRepository extends JpaRepository<PublishingDate, Long> {
 
-    @Query("SELECT pd FROM PublishingDate pd JOIN FETCH pd.books WHERE pd.id = :id")
+    @Query("SELECT pd FROM PublishingDate pd LEFT JOIN FETCH pd.books WHERE pd.id = :id")
     Optional<PublishingDate> findPublishingDateWithBooks(@Param("id") Long id);
 
     Optional<PublishingDate> findByDate(LocalDate date);
+
+    @Query("SELECT pd FROM PublishingDate pd LEFT JOIN FETCH pd.books WHERE pd.date = :date")
+    Optional<PublishingDate> findWithBooksByDate(@Param("date") LocalDate date);
+
+    @Query("SELECT pd.date FROM PublishingDate pd WHERE pd.id = :id")
+    Optional<LocalDate> findDateById(@Param("id") Long id);
+
+    List<PublishingDate> findByDateIn(Collection<LocalDate> dates);
+
+    /**
+     * Changes the date and bumps the version if the stored version is still the given one.
+     *
+     * @return 1 if updated, 0 if the date does not exist or was changed since that version was read
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = BookRepository.BULK_UPDATE_SPACE))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE publishing_dates SET date = :date, version = version + 1 WHERE id = :id AND version = :version",
+           nativeQuery = true)
+    int updateDate(@Param("id") Long id, @Param("date") LocalDate date, @Param("version") long version);
+
+    @Query("SELECT new com.records.books.dto.PublishingDateCatalogEntry(pd.id, pd.date) " +
+           "FROM PublishingDate pd ORDER BY pd.date")
+    List<PublishingDateCatalogEntry> findFirstCatalogPage(Limit limit);
+
+    @Query("SELECT new com.records.books.dto.PublishingDateCatalogEntry(pd.id, pd.date) " +
+           "FROM PublishingDate pd WHERE pd.date > :after ORDER BY pd.date")
+    List<PublishingDateCatalogEntry> findCatalogPageAfter(@Param("after") LocalDate after, Limit limit);
+
+    /**
+     * Returns the first books, by id, of each of the given publishing dates, each row with the date's total
+     * number of books.
+     *
+     * @param booksPerDate the maximum number of books returned per date
+     */
+    @Query("SELECT new com.records.books.dto.CatalogRow(r.publishingDateId, r.date, r.bookId, r.title, r.genre, r.bookCount) " +
+           "FROM (SELECT pd.id AS publishingDateId, pd.date AS date, b.id AS bookId, b.title AS title, b.genre AS genre, " +
+           "             row_number() OVER (PARTITION BY pd.id ORDER BY b.id) AS position, " +
+           "             count(*) OVER (PARTITION BY pd.id) AS bookCount " +
+           "      FROM Book b JOIN b.publishingDate pd WHERE pd.id IN :publishingDateIds) r " +
+           "WHERE r.position <= :booksPerDate ORDER BY r.bookId")
+    List<CatalogRow> findCatalogRows(@Param("publishingDateIds") Collection<Long> publishingDateIds,
+                                     @Param("booksPerDate") long booksPerDate);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.records.books.services;
+
+/**
+ * Buckets that book counts can be grouped by.
+ */
+public enum BookCountBucket {
+    DAY,
+    MONTH,
+    YEAR,
+    GENRE;
+
+    /**
+     * Resolves a bucket from a request parameter such as {@code month}.
+     *
+     * @throws IllegalArgumentException if the bucket is not supported
+     */
+    public static BookCountBucket fromParameter(String value) {
+        for (BookCountBucket bucket : values()) {
+            if (bucket.name().equalsIgnoreCase(value)) {
+                return bucket;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported grouping: " + value);
+    }
+}
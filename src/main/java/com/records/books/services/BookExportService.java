@@ -0,0 +1,73 @@
+package com.records.books.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.records.books.dto.BookListItem;
+import com.records.books.repositories.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the full catalog as CSV or NDJSON. Rows come from a forward-only cursor as read-only
+ * projections and are written as they arrive, so heap usage does not depend on the catalog size.
+ */
+@Service
+public class BookExportService {
+    private static final Logger logger = LoggerFactory.getLogger(BookExportService.class);
+
+    private final BookRepository bookRepository;
+    private final ObjectMapper objectMapper;
+
+    public BookExportService(BookRepository bookRepository, ObjectMapper objectMapper) {
+        this.bookRepository = bookRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Streams every book to the writer in id order.
+     *
+     * @param format the output format
+     * @param writer the destination; it is flushed but not closed
+     * @return the number of books written
+     */
+    @Transactional(readOnly = true)
+    public long exportBooks(CatalogFormat format, Writer writer) throws IOException {
+        long start = System.nanoTime();
+        long rows = 0;
+        if (format == CatalogFormat.CSV) {
+            writer.write("id,title,genre,publishingDate\n");
+        }
+        try (Stream<BookListItem> books = bookRepository.streamCatalog()) {
+            Iterator<BookListItem> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                BookListItem book = iterator.next();
+                writer.write(format == CatalogFormat.CSV ? toCsv(book) : objectMapper.writeValueAsString(book));
+                writer.write('\n');
+                rows++;
+            }
+        }
+        writer.flush();
+        logger.info("Exported {} books as {} in {} ms", rows, format, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    private static String toCsv(BookListItem book) {
+        return book.getId() + "," + csvField(book.getTitle()) + "," + csvField(book.getGenre()) + "," +
+               (book.getPublishingDate() != null ? book.getPublishingDate() : "");
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
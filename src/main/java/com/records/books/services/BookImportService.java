@@ -0,0 +1,362 @@
+package com.records.books.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.records.books.dto.ImportReport;
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import com.records.books.repositories.PublishingDateRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams publisher feeds into the catalog: parse, validate, resolve publishing date, batched write.
+ * Rows are read one record at a time and written in chunks, each in its own transaction with the
+ * persistence context flushed and cleared, so memory stays bounded by the chunk size. If a chunk fails
+ * to write, its rows are retried one by one so that only the failing rows are rejected.
+ */
+@Service
+public class BookImportService {
+    private static final Logger logger = LoggerFactory.getLogger(BookImportService.class);
+    private static final int MAX_TEXT_LENGTH = 255;
+    /** Header of the import layout; the publishing date column is optional. */
+    private static final List<String> CSV_COLUMNS = List.of("title", "genre", "publishingdate");
+    /** Header written by {@link BookExportService}; its leading id column is ignored. */
+    private static final List<String> EXPORT_CSV_COLUMNS = List.of("id", "title", "genre", "publishingdate");
+    /** Well above a record of quoted columns at their maximum length; a stray quote stops swallowing lines here. */
+    private static final int MAX_CSV_RECORD_LENGTH = 4096;
+
+    private record ImportRow(long lineNumber, String title, String genre, LocalDate publishingDate) {
+    }
+
+    private record CountBucket(LocalDate publishingDate, String genre) {
+    }
+
+    private final PublishingDateRepository publishingDateRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final BooksByDateCache booksByDateCache;
+    private final BookStatsService bookStatsService;
+    private final BookSearchIndex bookSearchIndex;
+    private final CatalogVersion catalogVersion;
+    private final CatalogOutbox catalogOutbox;
+    private final int chunkSize;
+
+    public BookImportService(PublishingDateRepository publishingDateRepository,
+                             EntityManager entityManager,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper,
+                             BooksByDateCache booksByDateCache,
+                             BookStatsService bookStatsService,
+                             BookSearchIndex bookSearchIndex,
+                             CatalogVersion catalogVersion,
+                             CatalogOutbox catalogOutbox,
+                             @Value("${books.import.chunk-size:1000}") int chunkSize) {
+        this.publishingDateRepository = publishingDateRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.booksByDateCache = booksByDateCache;
+        this.bookStatsService = bookStatsService;
+        this.bookSearchIndex = bookSearchIndex;
+        this.catalogVersion = catalogVersion;
+        this.catalogOutbox = catalogOutbox;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports books from a CSV (title,genre,publishingDate) or NDJSON feed. A CSV feed may start with a
+     * header naming exactly those columns, or with the {@code id,title,genre,publishingDate} header of an
+     * export, in which case the id column is ignored and the books get new ids. Quoted CSV fields may span
+     * lines, as exported titles with line breaks do; the breaks are read as {@code \n}.
+     * Missing publishing dates are created on the fly. Invalid rows are rejected and reported
+     * without stopping the import.
+     *
+     * @param source the feed to read; it is consumed but not closed
+     * @param format the format of the feed
+     * @return the import report with row counts and throughput
+     */
+    public ImportReport importBooks(Reader source, CatalogFormat format) throws IOException {
+        ImportReport report = new ImportReport();
+        Map<LocalDate, Long> publishingDateIds = new HashMap<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        long start = System.nanoTime();
+
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        long lineNumber = 0;
+        boolean idColumn = false;
+        while ((line = reader.readLine()) != null) {
+            long recordLineNumber = ++lineNumber;
+            if (format == CatalogFormat.CSV && hasOpenQuote(line)) {
+                StringBuilder record = new StringBuilder(line);
+                String next;
+                while (hasOpenQuote(record) && record.length() <= MAX_CSV_RECORD_LENGTH
+                        && (next = reader.readLine()) != null) {
+                    lineNumber++;
+                    record.append('\n').append(next);
+                }
+                line = record.toString();
+            }
+            if (recordLineNumber == 1 && format == CatalogFormat.CSV) {
+                List<String> header = csvHeader(line);
+                if (header != null) {
+                    idColumn = header.equals(EXPORT_CSV_COLUMNS);
+                    continue;
+                }
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            report.rowRead();
+            try {
+                chunk.add(format == CatalogFormat.CSV
+                        ? parseCsv(line, recordLineNumber, idColumn) : parseNdjson(line, recordLineNumber));
+            } catch (IllegalArgumentException e) {
+                report.reject(recordLineNumber, e.getMessage());
+                continue;
+            }
+            if (chunk.size() == chunkSize) {
+                writeChunk(chunk, publishingDateIds, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, publishingDateIds, report);
+        }
+
+        report.finish((System.nanoTime() - start) / 1_000_000);
+        logger.info("Book import finished: {}", report);
+        return report;
+    }
+
+    private void writeChunk(List<ImportRow> rows, Map<LocalDate, Long> publishingDateIds, ImportReport report) {
+        try {
+            resolvePublishingDates(rows, publishingDateIds, report);
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Book> books = new ArrayList<>(rows.size());
+                for (ImportRow row : rows) {
+                    Book book = new Book(row.title(), row.genre());
+                    if (row.publishingDate() != null) {
+                        book.setPublishingDate(entityManager.getReference(PublishingDate.class,
+                                publishingDateIds.get(row.publishingDate())));
+                    }
+                    entityManager.persist(book);
+                    books.add(book);
+                }
+                entityManager.flush();
+                catalogOutbox.booksChanged(CatalogOutbox.BOOK_CREATED, books);
+                entityManager.clear();
+                recordCounts(rows);
+                bookSearchIndex.index(books);
+                catalogVersion.bump();
+            });
+            report.imported(rows.size());
+            booksByDateCache.evictAll(rows.stream().map(ImportRow::publishingDate).collect(Collectors.toSet()));
+        } catch (DataAccessException e) {
+            if (rows.size() == 1) {
+                logger.warn("Rejecting line {}: {}", rows.get(0).lineNumber(), e.getMessage());
+                report.reject(rows.get(0).lineNumber(), "Write failed: " + e.getMostSpecificCause().getMessage());
+                return;
+            }
+            logger.warn("Retrying {} rows starting at line {} one by one: {}", rows.size(), rows.get(0).lineNumber(),
+                    e.getMessage());
+            for (ImportRow row : rows) {
+                writeChunk(List.of(row), publishingDateIds, report);
+            }
+        }
+    }
+
+    private void recordCounts(List<ImportRow> rows) {
+        if (!bookStatsService.isRollupEnabled()) {
+            return;
+        }
+        Map<CountBucket, Long> counts = rows.stream()
+                .filter(row -> row.publishingDate() != null)
+                .collect(Collectors.groupingBy(row -> new CountBucket(row.publishingDate(), row.genre()), Collectors.counting()));
+        counts.forEach((bucket, count) -> bookStatsService.recordBooks(bucket.publishingDate(), bucket.genre(), count));
+    }
+
+    /**
+     * Looks up the chunk's publishing dates that are not cached yet and creates the ones that do not exist.
+     * If a concurrent import creates the same date first, the unique constraint on {@code date} rejects
+     * our insert and the lookup is retried once.
+     */
+    private void resolvePublishingDates(List<ImportRow> rows, Map<LocalDate, Long> publishingDateIds, ImportReport report) {
+        Set<LocalDate> missing = new HashSet<>();
+        for (ImportRow row : rows) {
+            if (row.publishingDate() != null && !publishingDateIds.containsKey(row.publishingDate())) {
+                missing.add(row.publishingDate());
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        try {
+            report.publishingDatesCreated(findOrCreatePublishingDates(missing, publishingDateIds));
+        } catch (DataIntegrityViolationException e) {
+            report.publishingDatesCreated(findOrCreatePublishingDates(missing, publishingDateIds));
+        }
+    }
+
+    private int findOrCreatePublishingDates(Set<LocalDate> dates, Map<LocalDate, Long> publishingDateIds) {
+        Map<LocalDate, Long> resolved = new HashMap<>();
+        Integer count = transactionTemplate.execute(status -> {
+            for (PublishingDate existing : publishingDateRepository.findByDateIn(dates)) {
+                resolved.put(existing.getDate(), existing.getId());
+            }
+            List<PublishingDate> created = new ArrayList<>();
+            for (LocalDate date : dates) {
+                if (!resolved.containsKey(date)) {
+                    PublishingDate publishingDate = new PublishingDate(date);
+                    entityManager.persist(publishingDate);
+                    resolved.put(date, publishingDate.getId());
+                    created.add(publishingDate);
+                }
+            }
+            entityManager.flush();
+            if (!created.isEmpty()) {
+                catalogOutbox.publishingDatesChanged(CatalogOutbox.PUBLISHING_DATE_CREATED, created, publishingDate -> 0);
+                catalogVersion.bump();
+            }
+            return created.size();
+        });
+        publishingDateIds.putAll(resolved);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Returns the lower-cased column names if the line is one of the accepted headers, or null if it is a row.
+     * Only whole column names count, so a first book titled "Title Deeds" is imported.
+     */
+    private static List<String> csvHeader(String line) {
+        List<String> columns;
+        try {
+            columns = splitCsvLine(line).stream().map(column -> column.trim().toLowerCase(Locale.ROOT)).toList();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        boolean header = columns.equals(EXPORT_CSV_COLUMNS)
+                || columns.equals(CSV_COLUMNS) || columns.equals(CSV_COLUMNS.subList(0, 2));
+        return header ? columns : null;
+    }
+
+    private ImportRow parseCsv(String line, long lineNumber, boolean idColumn) {
+        List<String> fields = splitCsvLine(line);
+        if (idColumn) {
+            if (fields.size() != EXPORT_CSV_COLUMNS.size()) {
+                throw new IllegalArgumentException("Expected 4 columns (id,title,genre,publishingDate) but found " + fields.size());
+            }
+            fields = fields.subList(1, fields.size());
+        }
+        if (fields.size() < 2 || fields.size() > 3) {
+            throw new IllegalArgumentException("Expected 2 or 3 columns (title,genre,publishingDate) but found " + fields.size());
+        }
+        return validate(lineNumber, fields.get(0), fields.get(1), fields.size() == 3 ? fields.get(2) : null);
+    }
+
+    private ImportRow parseNdjson(String line, long lineNumber) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        return validate(lineNumber, text(node, "title"), text(node, "genre"), text(node, "publishingDate"));
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return (value == null || value.isNull()) ? null : value.asText();
+    }
+
+    private static ImportRow validate(long lineNumber, String title, String genre, String publishingDate) {
+        if (title == null || title.isBlank()) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        if (title.length() > MAX_TEXT_LENGTH || (genre != null && genre.length() > MAX_TEXT_LENGTH)) {
+            throw new IllegalArgumentException("Title and genre must be at most " + MAX_TEXT_LENGTH + " characters");
+        }
+        LocalDate date = null;
+        if (publishingDate != null && !publishingDate.isBlank()) {
+            try {
+                date = LocalDate.parse(publishingDate.trim());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid publishing date: " + publishingDate);
+            }
+        }
+        return new ImportRow(lineNumber, title.trim(), (genre == null || genre.isBlank()) ? null : genre.trim(), date);
+    }
+
+    /**
+     * Returns whether a quoted field is still open at the end of the text. Doubled quotes inside a field
+     * count twice, so the parity of the quotes decides.
+     */
+    static boolean hasOpenQuote(CharSequence text) {
+        boolean open = false;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                open = !open;
+            }
+        }
+        return open;
+    }
+
+    /**
+     * Splits one CSV record, honouring double-quoted fields and doubled quotes inside them.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,310 @@
+package com.records.books.services;
+
+import com.records.books.dto.BookListItem;
+import com.records.books.dto.BookSearchHit;
+import com.records.books.dto.BookSearchResults;
+import com.records.books.dto.KeysetPage;
+import com.records.books.entities.Book;
+import com.records.books.repositories.BookRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-process Lucene index over book titles and genres, serving ranked full-text search without
+ * {@code LIKE '%x%'} scans. The index is rebuilt from the database at startup and then kept current
+ * by {@link #index} calls from the write paths, which are applied after the writing transaction commits.
+ * Updates become searchable at the next refresh, every {@code books.search.refresh-interval}, so a burst
+ * of writes shares one reopen of the searcher; updates wait while a rebuild runs, so they never add a
+ * second copy of a book the rebuild is adding.
+ * <p>
+ * Stop words are left out of the title terms, but every title is also indexed whole, so a title made only
+ * of stop words ("It", "The The") is still found by searching for it.
+ * <p>
+ * The index lives in memory by default; set {@code books.search.index-path} to keep it in a directory
+ * (memory-mapped) for large catalogs.
+ */
+@Component
+public class BookSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    /** Deepest result that can be paged to; relevance paging beyond it is rarely useful and grows linearly. */
+    public static final int MAX_RESULT_WINDOW = 1000;
+
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String GENRE = "genre";
+    private static final String EXACT_TITLE = "title_exact";
+    /** Ranks a whole-title match above titles that merely contain the query terms. */
+    private static final float EXACT_TITLE_BOOST = 4.0f;
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(TITLE, 2.0f, GENRE, 1.0f);
+
+    /**
+     * Classic English stop words. They occur in a large share of titles, and a conjunction of such terms
+     * has competitive scores in every postings block, so it cannot be pruned and dominates tail latency.
+     */
+    public static final List<String> STOP_WORDS = List.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it",
+            "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there", "these",
+            "they", "this", "to", "was", "will", "with");
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Analyzer analyzer = new StandardAnalyzer(new CharArraySet(STOP_WORDS, true));
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService refresher;
+
+    public BookSearchIndex(BookRepository bookRepository,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${books.search.index-path:}") String indexPath,
+                           @Value("${books.search.refresh-interval:1s}") Duration refreshInterval) throws IOException {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.directory = indexPath.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexPath));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Replaces the index content with every book in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        Long indexed = readOnly.execute(status -> {
+            try (Stream<BookListItem> books = bookRepository.streamCatalog()) {
+                return indexAll(books);
+            }
+        });
+        logger.info("Rebuilt book search index: {} books in {} ms", indexed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Replaces the index content with the given books. Incremental updates wait until it completes.
+     *
+     * @return the number of books indexed
+     */
+    public long indexAll(Stream<BookListItem> books) {
+        rebuildLock.writeLock().lock();
+        try {
+            writer.deleteAll();
+            long count = 0;
+            for (BookListItem book : (Iterable<BookListItem>) books::iterator) {
+                writer.addDocument(toDocument(book.getId(), book.getTitle(), book.getGenre()));
+                count++;
+            }
+            // One segment after a bulk build saves the per-segment overhead on every query.
+            writer.forceMerge(1);
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to rebuild the book search index", e);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces the given books in the index. Their current title and genre are captured now;
+     * inside a transaction the update is applied after commit, so rolled back writes never become searchable.
+     * The books become searchable at the next {@link #refresh}.
+     */
+    public void index(Collection<Book> books) {
+        List<Document> documents = new ArrayList<>(books.size());
+        for (Book book : books) {
+            documents.add(toDocument(book.getId(), book.getTitle(), book.getGenre()));
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update(documents);
+                }
+            });
+        } else {
+            update(documents);
+        }
+    }
+
+    /**
+     * Makes the updates applied so far searchable. Runs every {@code books.search.refresh-interval}.
+     */
+    public void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to refresh the book search index", e);
+        }
+    }
+
+    /**
+     * Searches titles and genres. Terms are combined with AND; the query supports quoted phrases,
+     * {@code -term} exclusions and {@code prefix*} matches, and never fails on unbalanced syntax.
+     * A title equal to the whole query ranks first, even if it consists of stop words only.
+     *
+     * @param text the user's query
+     * @param offset the number of ranked results to skip
+     * @param limit the maximum number of results on the page
+     * @throws IllegalArgumentException if the offset lies outside {@link #MAX_RESULT_WINDOW}
+     */
+    public BookSearchResults search(String text, int offset, int limit) {
+        if (offset < 0 || offset >= MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("Search results can only be paged up to " + MAX_RESULT_WINDOW + " hits.");
+        }
+        int pageSize = Math.min(KeysetPage.clampLimit(limit), MAX_RESULT_WINDOW - offset);
+        if (text == null || text.isBlank()) {
+            return new BookSearchResults(List.of(), 0, null);
+        }
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query exactTitle = new BoostQuery(new TermQuery(new Term(EXACT_TITLE, exactTitle(text))), EXACT_TITLE_BOOST);
+        Query terms = parser.parse(text);
+        Query query = terms == null ? exactTitle : new BooleanQuery.Builder()
+                .add(terms, BooleanClause.Occur.SHOULD)
+                .add(exactTitle, BooleanClause.Occur.SHOULD)
+                .build();
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs topDocs = searcher.search(query, offset + pageSize + 1);
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            List<BookSearchHit> hits = new ArrayList<>(pageSize);
+            for (int i = offset; i < Math.min(scoreDocs.length, offset + pageSize); i++) {
+                Document document = searcher.storedFields().document(scoreDocs[i].doc);
+                hits.add(new BookSearchHit(Long.valueOf(document.get(ID)), document.get(TITLE), document.get(GENRE),
+                        scoreDocs[i].score));
+            }
+            boolean hasNext = scoreDocs.length > offset + pageSize && offset + pageSize < MAX_RESULT_WINDOW;
+            TotalHits totalHits = topDocs.totalHits;
+            return new BookSearchResults(hits, totalHits.value, hasNext ? offset + pageSize : null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Book search failed", e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        refresher.shutdown();
+        refresher.awaitTermination(10, TimeUnit.SECONDS);
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private void update(List<Document> documents) {
+        // Shared: updates run concurrently with each other, but not with a rebuild.
+        rebuildLock.readLock().lock();
+        try {
+            for (Document document : documents) {
+                writer.updateDocument(new Term(ID, document.get(ID)), document);
+            }
+        } catch (IOException e) {
+            // The database write has committed; the book becomes searchable at the next rebuild.
+            logger.error("Failed to update the book search index", e);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            // Near-real-time: the searcher reads the writer's buffer, so no commit (fsync) per refresh.
+            searcherManager.maybeRefresh();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to refresh the book search index, retrying on the next interval", e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        if (searcher == null) {
+            return;
+        }
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            logger.warn("Failed to release index searcher", e);
+        }
+    }
+
+    private static Document toDocument(Long id, String title, String genre) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(id), Field.Store.YES));
+        document.add(new TextField(TITLE, title, Field.Store.YES));
+        document.add(new StringField(EXACT_TITLE, exactTitle(title), Field.Store.NO));
+        if (genre != null) {
+            document.add(new TextField(GENRE, genre, Field.Store.YES));
+        }
+        return document;
+    }
+
+    /**
+     * The form in which whole titles are indexed and matched: lower case, with runs of whitespace collapsed.
+     */
+    private static String exactTitle(String title) {
+        return title.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,33 +1,279 @@
 package com.records.books.services;
 
+import com.records.books.dto.BookListItem;
+import com.records.books.dto.BookOption;
+import com.records.books.dto.BookRequest;
+import com.records.books.dto.BookSearchResults;
+import com.records.books.dto.KeysetPage;
 import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
 import com.records.books.repositories.BookRepository;
+import com.records.books.repositories.PublishingDateRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "books.service", description = "Latency of catalog service methods", histogram = true)
 public class BookService {
     private final BookRepository bookRepository;
+    private final PublishingDateRepository publishingDateRepository;
+    private final BooksByDateCache booksByDateCache;
+    private final BookStatsService bookStatsService;
+    private final BookSearchIndex bookSearchIndex;
+    private final CatalogVersion catalogVersion;
+    private final TransactionTemplate transactionTemplate;
+    private final BookTitleWriteBehind bookTitleWriteBehind;
+    private final CatalogOutbox catalogOutbox;
 
-    public BookService(BookRepository bookRepository) {
+    public BookService(BookRepository bookRepository, PublishingDateRepository publishingDateRepository,
+                       BooksByDateCache booksByDateCache, BookStatsService bookStatsService,
+                       BookSearchIndex bookSearchIndex, CatalogVersion catalogVersion,
+                       TransactionTemplate transactionTemplate, BookTitleWriteBehind bookTitleWriteBehind,
+                       CatalogOutbox catalogOutbox) {
         this.bookRepository = bookRepository;
+        this.publishingDateRepository = publishingDateRepository;
+        this.booksByDateCache = booksByDateCache;
+        this.bookStatsService = bookStatsService;
+        this.bookSearchIndex = bookSearchIndex;
+        this.catalogVersion = catalogVersion;
+        this.transactionTemplate = transactionTemplate;
+        this.bookTitleWriteBehind = bookTitleWriteBehind;
+        this.catalogOutbox = catalogOutbox;
     }
 
+    @Transactional(readOnly = true)
     public List<Book> getAllBooks() {
         return bookRepository.findAll();
     }
 
+    /**
+     * Returns the books with the given ids as picker options, in title order; unknown ids are skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<BookOption> getBookOptions(Collection<Long> ids) {
+        return bookRepository.findOptionsByIdIn(ids);
+    }
+
+    /**
+     * Returns one page of books ordered by id, starting after the given id.
+     *
+     * @param after the id of the last book on the previous page, or null for the first page
+     * @param limit the maximum number of books on the page
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<BookListItem, Long> getBooksPage(Long after, int limit) {
+        int pageSize = KeysetPage.clampLimit(limit);
+        List<BookListItem> books = (after == null)
+                ? bookRepository.findFirstPage(Limit.of(pageSize + 1))
+                : bookRepository.findPageAfter(after, Limit.of(pageSize + 1));
+        books = bookTitleWriteBehind.withPendingTitles(books, BookListItem::getId, BookListItem::withTitle);
+
+        if (books.size() > pageSize) {
+            books = books.subList(0, pageSize);
+            return new KeysetPage<>(books, books.get(pageSize - 1).getId());
+        }
+        return new KeysetPage<>(books, null);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<BookListItem> getBook(Long id) {
+        return bookRepository.findItemById(id)
+                .map(book -> bookTitleWriteBehind.withPendingTitle(book, BookListItem::getId, BookListItem::withTitle));
+    }
+
+    /**
+     * Returns one page of books published between two dates, ordered by publishing date and then id.
+     *
+     * @param from the first publishing date to include
+     * @param to the last publishing date to include
+     * @param afterDate the publishing date of the last book on the previous page, or null for the first page
+     * @param afterId the id of the last book on the previous page, or null for the first page
+     * @param limit the maximum number of books on the page
+     * @throws IllegalArgumentException if from is after to
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<BookListItem, BookListItem> getBooksInRange(LocalDate from, LocalDate to,
+                                                                  LocalDate afterDate, Long afterId, int limit) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("The start of the range must not be after its end.");
+        }
+        int pageSize = KeysetPage.clampLimit(limit);
+        List<BookListItem> books = (afterDate == null || afterId == null)
+                ? bookRepository.findFirstRangePage(from, to, Limit.of(pageSize + 1))
+                : bookRepository.findRangePageAfter(from, to, afterDate, afterId, Limit.of(pageSize + 1));
+        books = bookTitleWriteBehind.withPendingTitles(books, BookListItem::getId, BookListItem::withTitle);
+
+        if (books.size() > pageSize) {
+            books = books.subList(0, pageSize);
+            return new KeysetPage<>(books, books.get(pageSize - 1));
+        }
+        return new KeysetPage<>(books, null);
+    }
+
+    /**
+     * Returns one page of (id, title) pairs whose title starts with the given prefix, ordered by title.
+     * The title index serves both the prefix match and the ordering.
+     *
+     * @param prefix the title prefix typed by the user; may be empty
+     * @param afterTitle the title of the last option on the previous page, or null for the first page
+     * @param afterId the id of the last option on the previous page, or null for the first page
+     * @param limit the maximum number of options on the page
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<BookOption, BookOption> findBookOptions(String prefix, String afterTitle, Long afterId, int limit) {
+        int pageSize = KeysetPage.clampLimit(limit);
+        String pattern = escapeLikePattern(prefix == null ? "" : prefix.trim()) + "%";
+        List<BookOption> options = (afterTitle == null || afterId == null)
+                ? bookRepository.findOptionsByTitlePrefix(pattern, Limit.of(pageSize + 1))
+                : bookRepository.findOptionsByTitlePrefixAfter(pattern, afterTitle, afterId, Limit.of(pageSize + 1));
+
+        if (options.size() > pageSize) {
+            options = options.subList(0, pageSize);
+            return new KeysetPage<>(options, options.get(pageSize - 1));
+        }
+        return new KeysetPage<>(options, null);
+    }
+
+    /**
+     * Ranked full-text search over titles and genres, served by the in-process search index.
+     *
+     * @see BookSearchIndex#search(String, int, int)
+     */
+    public BookSearchResults searchBooks(String query, int offset, int limit) {
+        return bookSearchIndex.search(query, offset, limit);
+    }
+
+    private static String escapeLikePattern(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    /**
+     * Creates a book, or updates it if it has an ID. An update only applies if the stored version is
+     * still the version of the given book.
+     *
+     * @throws IllegalArgumentException if the book has an ID that does not exist
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the book was changed since
+     *         its version was read
+     */
+    @Transactional
     public void saveBook(Book book) {
-        bookRepository.save(book);
+        boolean isNew = book.getId() == null;
+        if (!isNew) {
+            // The saved book carries its own title, which supersedes one still waiting to be written.
+            bookTitleWriteBehind.discard(book.getId());
+            // Loaded first so the merge below reuses it instead of selecting the row again.
+            Book stored = bookRepository.findById(book.getId())
+                    .orElseThrow(() -> new IllegalArgumentException("Book with ID " + book.getId() + " does not exist."));
+            booksByDateCache.evict(publishingDateOf(stored));
+            bookStatsService.recordBooks(publishingDateOf(stored), stored.getGenre(), -1);
+        }
+        // Flushed so the caller's copy can take the new version and be saved again.
+        Book saved = bookRepository.saveAndFlush(book);
+        book.setVersion(saved.getVersion());
+        catalogOutbox.bookChanged(isNew ? CatalogOutbox.BOOK_CREATED : CatalogOutbox.BOOK_UPDATED, saved);
+        booksByDateCache.evict(publishingDateOf(saved));
+        bookStatsService.recordBooks(publishingDateOf(saved), saved.getGenre(), 1);
+        bookSearchIndex.index(List.of(saved));
+        catalogVersion.bump();
     }
 
-    public void updateBookTitle(Long bookId, String newTitle) {  
-        Optional<Book> bookOpt = bookRepository.findById(bookId);
-        if (bookOpt.isPresent()) {
-            Book book = bookOpt.get();
-            book.setTitle(newTitle);  
-            bookRepository.save(book);
+    /**
+     * Creates the given books in one transaction, with inserts sent in JDBC batches.
+     *
+     * @return the created books, in request order
+     * @throws IllegalArgumentException if a publishing date ID does not exist
+     */
+    @Transactional
+    public List<BookListItem> createBooks(List<BookRequest> requests) {
+        Set<Long> publishingDateIds = requests.stream()
+                .map(BookRequest::getPublishingDateId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, PublishingDate> publishingDates = new HashMap<>();
+        for (PublishingDate publishingDate : publishingDateRepository.findAllById(publishingDateIds)) {
+            publishingDates.put(publishingDate.getId(), publishingDate);
+        }
+        if (publishingDates.size() != publishingDateIds.size()) {
+            publishingDateIds.removeAll(publishingDates.keySet());
+            throw new IllegalArgumentException("Invalid publishing date ID(s): " + publishingDateIds);
+        }
+
+        List<Book> books = new ArrayList<>(requests.size());
+        for (BookRequest request : requests) {
+            Book book = new Book(request.getTitle().trim(), request.getGenre());
+            book.setPublishingDate(publishingDates.get(request.getPublishingDateId()));
+            books.add(book);
+        }
+        bookRepository.saveAll(books);
+        bookRepository.flush();
+        catalogOutbox.booksChanged(CatalogOutbox.BOOK_CREATED, books);
+
+        booksByDateCache.evictAll(books.stream().map(BookService::publishingDateOf).collect(Collectors.toSet()));
+        bookStatsService.recordNewBooks(books);
+        bookSearchIndex.index(books);
+        catalogVersion.bump();
+        return books.stream()
+                .map(book -> new BookListItem(book.getId(), book.getTitle(), book.getGenre(), publishingDateOf(book)))
+                .toList();
+    }
+
+    /**
+     * Renames a book. The first attempt reads the book from the cache and sends a single versioned update.
+     * A rename does not depend on the title it replaces, so if a concurrent writer wins the version check
+     * it is retried once with the row locked, which cannot conflict again.
+     * <p>
+     * With {@link BookTitleWriteBehind} enabled, the rename is only queued and written later in a batch.
+     *
+     * @return false if the book does not exist
+     */
+    public boolean updateBookTitle(Long bookId, String newTitle) {
+        if (bookTitleWriteBehind.isEnabled()) {
+            if (bookRepository.findById(bookId).isEmpty()) {
+                return false;
+            }
+            bookTitleWriteBehind.enqueue(bookId, newTitle);
+            return true;
         }
+        try {
+            return renameBook(bookId, newTitle, false);
+        } catch (OptimisticLockingFailureException e) {
+            return renameBook(bookId, newTitle, true);
+        }
+    }
+
+    private boolean renameBook(Long bookId, String newTitle, boolean lockRow) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Optional<Book> bookOpt = lockRow ? bookRepository.findForUpdateById(bookId) : bookRepository.findById(bookId);
+            if (bookOpt.isEmpty()) {
+                return false;
+            }
+            Book book = bookOpt.get();
+            book.setTitle(newTitle);
+            // Flushed so the event is recorded after the versioned update has locked the row.
+            bookRepository.flush();
+            catalogOutbox.bookChanged(CatalogOutbox.BOOK_RENAMED, book);
+            booksByDateCache.evict(publishingDateOf(book));
+            bookSearchIndex.index(List.of(book));
+            catalogVersion.bump();
+            return true;
+        }));
+    }
+
+    private static LocalDate publishingDateOf(Book book) {
+        return book.getPublishingDate() == null ? null : book.getPublishingDate().getDate();
     }
 }
\ No newline at end of file
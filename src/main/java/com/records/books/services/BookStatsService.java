@@ -0,0 +1,142 @@
+package com.records.books.services;
+
+import com.records.books.dto.BookCount;
+import com.records.books.entities.Book;
+import com.records.books.entities.BookCountRollup;
+import com.records.books.repositories.BookCountRollupRepository;
+import com.records.books.repositories.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Book counts per day, month, year or genre over a publishing date range.
+ * <p>
+ * By default the counts are GROUP BY queries over the books table, so their cost grows with the
+ * number of books in the range. With {@code books.rollup.enabled=true} they are read from the
+ * book_count_rollup table instead, which holds one row per (day, genre) and is kept current by the
+ * {@code record*} methods called from every write path. The table is rebuilt once at startup so that
+ * rows written while the rollup was disabled are counted.
+ */
+@Service
+public class BookStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(BookStatsService.class);
+
+    /** Bounds used for an open range; they match the range of MySQL's DATE type. */
+    static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+    static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private final BookRepository bookRepository;
+    private final BookCountRollupRepository rollupRepository;
+    private final boolean rollupEnabled;
+
+    public BookStatsService(BookRepository bookRepository,
+                            BookCountRollupRepository rollupRepository,
+                            @Value("${books.rollup.enabled:false}") boolean rollupEnabled) {
+        this.bookRepository = bookRepository;
+        this.rollupRepository = rollupRepository;
+        this.rollupEnabled = rollupEnabled;
+    }
+
+    /**
+     * Counts books with a publishing date in the given range, grouped by the given bucket.
+     * Books without a publishing date are not counted.
+     *
+     * @param bucket the grouping
+     * @param from the first publishing date to include, or null for no lower bound
+     * @param to the last publishing date to include, or null for no upper bound
+     * @return one count per non-empty bucket, in bucket order
+     * @throws IllegalArgumentException if from is after to
+     */
+    @Transactional(readOnly = true)
+    public List<BookCount> countBooks(BookCountBucket bucket, LocalDate from, LocalDate to) {
+        LocalDate start = from == null ? MIN_DATE : from;
+        LocalDate end = to == null ? MAX_DATE : to;
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("The start of the range must not be after its end.");
+        }
+        if (rollupEnabled) {
+            return switch (bucket) {
+                case DAY -> rollupRepository.countByDay(start, end);
+                case MONTH -> rollupRepository.countByMonth(start, end);
+                case YEAR -> rollupRepository.countByYear(start, end);
+                case GENRE -> rollupRepository.countByGenre(start, end);
+            };
+        }
+        return switch (bucket) {
+            case DAY -> bookRepository.countByDay(start, end);
+            case MONTH -> bookRepository.countByMonth(start, end);
+            case YEAR -> bookRepository.countByYear(start, end);
+            case GENRE -> bookRepository.countByGenre(start, end);
+        };
+    }
+
+    public boolean isRollupEnabled() {
+        return rollupEnabled;
+    }
+
+    /**
+     * Adds delta books to the (day, genre) bucket. Call inside the transaction that writes the books.
+     */
+    public void recordBooks(LocalDate day, String genre, long delta) {
+        if (rollupEnabled && day != null && delta != 0) {
+            rollupRepository.add(day, genre == null ? BookCountRollup.NO_GENRE : genre, delta);
+        }
+    }
+
+    /**
+     * Counts newly created books, one upsert per (day, genre) bucket rather than per book.
+     */
+    public void recordNewBooks(Collection<Book> books) {
+        if (!rollupEnabled) {
+            return;
+        }
+        Map<BookCountRollup.Key, Long> counts = new HashMap<>();
+        for (Book book : books) {
+            if (book.getPublishingDate() != null) {
+                counts.merge(new BookCountRollup.Key(book.getPublishingDate().getDate(), book.getGenre()), 1L, Long::sum);
+            }
+        }
+        counts.forEach((bucket, count) -> recordBooks(bucket.getPublishingDay(), bucket.getGenre(), count));
+    }
+
+    /**
+     * Adds delta to the buckets of the given books as they are currently stored. Call with -1 before
+     * the books are moved or changed and with +1 afterwards, inside the same transaction.
+     */
+    public void recordBooks(Collection<Long> bookIds, long delta) {
+        if (rollupEnabled && !bookIds.isEmpty()) {
+            rollupRepository.addBooks(bookIds, delta);
+        }
+    }
+
+    /**
+     * Adds delta to the buckets of every book currently on the given publishing date.
+     */
+    public void recordPublishingDate(Long publishingDateId, long delta) {
+        if (rollupEnabled) {
+            rollupRepository.addPublishingDate(publishingDateId, delta);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildRollup() {
+        if (!rollupEnabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        rollupRepository.deleteAllInBatch();
+        int rows = rollupRepository.rebuild();
+        logger.info("Rebuilt book count rollup: {} rows in {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,265 @@
+package com.records.books.services;
+
+import com.records.books.entities.Book;
+import com.records.books.repositories.BookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Write-behind queue for book title updates, enabled with {@code books.title-write-behind.enabled}.
+ * <p>
+ * A rename is acknowledged as soon as it is queued. Renames of the same book coalesce, the last one
+ * wins, and the pending titles are written in JDBC batches once {@code batch-size} books are pending
+ * or every {@code flush-interval}. At most {@code max-pending} books wait; a rename beyond that writes
+ * the queue out on the caller's thread first. Pending titles are written out when the application
+ * shuts down.
+ * <p>
+ * Titles are checked when they are queued. If the database still rejects a batch with an integrity
+ * violation, its titles are written one by one; a title rejected on its own is dropped and counted as
+ * {@code books.titles.dropped}, so it cannot hold back the rest of the queue.
+ * <p>
+ * Book reads served by {@link BookService} and {@link PublishingDateService} apply the pending titles
+ * through {@link #withPendingTitles}. Full-text search, the title picker and the export only see a
+ * title once it is written, and the {@link CatalogOutbox} event of a rename is recorded when it is written.
+ */
+@Component
+public class BookTitleWriteBehind {
+    private static final Logger logger = LoggerFactory.getLogger(BookTitleWriteBehind.class);
+    private static final int MAX_TITLE_LENGTH = 255;
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BooksByDateCache booksByDateCache;
+    private final BookSearchIndex bookSearchIndex;
+    private final CatalogVersion catalogVersion;
+    private final CatalogOutbox catalogOutbox;
+    private final boolean enabled;
+    private final int maxPending;
+    private final int batchSize;
+    private final Map<Long, String> pending = new ConcurrentHashMap<>();
+    // Not a monitor: a flush runs transactions, which would pin a virtual thread to its carrier.
+    private final Lock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+    private final Counter written;
+    private final Counter dropped;
+
+    public BookTitleWriteBehind(BookRepository bookRepository, TransactionTemplate transactionTemplate,
+                                BooksByDateCache booksByDateCache, BookSearchIndex bookSearchIndex,
+                                CatalogVersion catalogVersion, CatalogOutbox catalogOutbox, MeterRegistry meterRegistry,
+                                @Value("${books.title-write-behind.enabled:false}") boolean enabled,
+                                @Value("${books.title-write-behind.max-pending:10000}") int maxPending,
+                                @Value("${books.title-write-behind.batch-size:500}") int batchSize,
+                                @Value("${books.title-write-behind.flush-interval:200ms}") Duration flushInterval) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.booksByDateCache = booksByDateCache;
+        this.bookSearchIndex = bookSearchIndex;
+        this.catalogVersion = catalogVersion;
+        this.catalogOutbox = catalogOutbox;
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        this.written = Counter.builder("books.titles.written")
+                .description("Book titles written by the write-behind queue")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("books.titles.dropped")
+                .description("Book titles dropped from the write-behind queue because the database rejected them")
+                .register(meterRegistry);
+        Gauge.builder("books.titles.pending", pending, Map::size)
+                .description("Book title updates waiting in the write-behind queue")
+                .register(meterRegistry);
+
+        if (enabled) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "title-write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = flushInterval.toMillis();
+            flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+            logger.info("Book titles are written behind: batches of {}, every {} ms, at most {} pending",
+                    batchSize, intervalMillis, maxPending);
+        } else {
+            flusher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a new title for a book, replacing any title still pending for it.
+     *
+     * @throws IllegalArgumentException if the title is blank or longer than 255 characters
+     */
+    public void enqueue(Long bookId, String title) {
+        if (title == null || title.isBlank()) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        if (title.length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("Title must be at most " + MAX_TITLE_LENGTH + " characters");
+        }
+        if (!pending.containsKey(bookId) && pending.size() >= maxPending) {
+            flush();
+        }
+        pending.put(bookId, title);
+        catalogVersion.bump();
+        if (pending.size() >= batchSize) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Drops the title pending for a book, when a full save of the book supersedes it.
+     */
+    public void discard(Long bookId) {
+        if (bookId != null) {
+            pending.remove(bookId);
+        }
+    }
+
+    /**
+     * Returns the books with their pending titles applied; the given list is not modified.
+     *
+     * @param id returns the id of a book
+     * @param withTitle returns a copy of a book with another title
+     */
+    public <T> List<T> withPendingTitles(List<T> books, Function<T, Long> id, BiFunction<T, String, T> withTitle) {
+        if (pending.isEmpty()) {
+            return books;
+        }
+        List<T> result = new ArrayList<>(books.size());
+        for (T book : books) {
+            result.add(withPendingTitle(book, id, withTitle));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    public <T> T withPendingTitle(T book, Function<T, Long> id, BiFunction<T, String, T> withTitle) {
+        String title = pending.get(id.apply(book));
+        return title == null ? book : withTitle.apply(book, title);
+    }
+
+    /**
+     * Writes all pending titles, one transaction per batch. A title stays visible as pending until
+     * its batch is committed, and a rename queued meanwhile is kept for the next flush.
+     *
+     * @return the number of books written
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            Map<Long, String> titles = new LinkedHashMap<>(pending);
+            Map<Long, String> batch = new LinkedHashMap<>();
+            int count = 0;
+            for (Map.Entry<Long, String> entry : titles.entrySet()) {
+                batch.put(entry.getKey(), entry.getValue());
+                if (batch.size() == batchSize) {
+                    count += write(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                count += write(batch);
+            }
+            return count;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        int count = flush();
+        logger.info("Wrote {} pending book titles on shutdown", count);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Writing pending book titles failed, retrying on the next flush: {}", e.getMessage());
+        }
+    }
+
+    private int write(Map<Long, String> titles) {
+        try {
+            return writeBatch(titles);
+        } catch (DataIntegrityViolationException e) {
+            if (titles.size() == 1) {
+                titles.forEach((bookId, title) -> {
+                    // Only this title: a newer rename queued meanwhile is kept.
+                    pending.remove(bookId, title);
+                    logger.error("Dropped pending title of book {}, the database rejected it: {}", bookId, e.getMessage());
+                });
+                dropped.increment();
+                return 0;
+            }
+            logger.warn("Writing a batch of {} pending titles failed, writing them one by one: {}",
+                    titles.size(), e.getMessage());
+            int count = 0;
+            for (Map.Entry<Long, String> entry : titles.entrySet()) {
+                count += write(Map.of(entry.getKey(), entry.getValue()));
+            }
+            return count;
+        }
+    }
+
+    private int writeBatch(Map<Long, String> titles) {
+        List<Book> books;
+        try {
+            books = transactionTemplate.execute(status -> apply(bookRepository.findAllById(titles.keySet()), titles));
+        } catch (OptimisticLockingFailureException e) {
+            // A concurrent save won a version check. Renames do not depend on the old title, so
+            // apply them again with the rows locked, which cannot conflict.
+            books = transactionTemplate.execute(status -> apply(bookRepository.findByIdInOrderById(titles.keySet()), titles));
+        }
+        titles.forEach(pending::remove);
+        written.increment(books.size());
+        return books.size();
+    }
+
+    private List<Book> apply(List<Book> books, Map<Long, String> titles) {
+        for (Book book : books) {
+            book.setTitle(titles.get(book.getId()));
+            if (book.getPublishingDate() != null) {
+                booksByDateCache.evict(book.getPublishingDate().getDate());
+            }
+        }
+        // Flushed so the events are recorded after the versioned updates have locked the rows.
+        bookRepository.flush();
+        books.forEach(book -> catalogOutbox.bookChanged(CatalogOutbox.BOOK_RENAMED, book));
+        bookSearchIndex.index(books);
+        catalogVersion.bump();
+        return books;
+    }
+}
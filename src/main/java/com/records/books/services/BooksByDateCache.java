@@ -0,0 +1,64 @@
+package com.records.books.services;
+
+import com.records.books.dto.BookSummary;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the books published on each date, read through
+ * {@link PublishingDateService#getBooksByPublishingDate(LocalDate)}.
+ * Size and TTL come from {@code spring.cache.caffeine.spec}; hit, miss and eviction counts are
+ * published by Actuator as the {@code cache.*} metrics tagged {@code cache=booksByDate}.
+ * <p>
+ * Write paths evict exactly the dates whose book lists they change. Inside a transaction the
+ * evictions are deferred until after commit, so a concurrent read cannot re-cache the old list.
+ * <p>
+ * Misses met in a read-only transaction, which may read from a replica, are loaded in a read-write
+ * transaction of their own on the primary: a list read from a lagging replica right after the eviction
+ * would otherwise be cached as current until it expires.
+ */
+@Component
+public class BooksByDateCache {
+
+    public static final String NAME = "booksByDate";
+
+    private final CacheManager cacheManager;
+    private final TransactionTemplate primaryLoad;
+
+    public BooksByDateCache(CacheManager cacheManager, TransactionTemplate transactionTemplate) {
+        this.cacheManager = cacheManager;
+        this.primaryLoad = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.primaryLoad.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Returns the cached books of a date, loading them from the primary and caching them on a miss.
+     */
+    public List<BookSummary> get(LocalDate date, Supplier<List<BookSummary>> loader) {
+        return cache().get(date, () -> TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? primaryLoad.execute(status -> loader.get()) : loader.get());
+    }
+
+    public void evict(LocalDate date) {
+        if (date != null) {
+            cache().evict(date);
+        }
+    }
+
+    public void evictAll(Collection<LocalDate> dates) {
+        dates.forEach(this::evict);
+    }
+
+    private Cache cache() {
+        return new TransactionAwareCacheDecorator(cacheManager.getCache(NAME));
+    }
+}
@@ -0,0 +1,22 @@
+package com.records.books.services;
+
+import java.io.Serializable;
+
+/**
+ * Tells the other application nodes to drop second-level cache entries that changed on the sending node,
+ * or that the catalog changed on it (see CatalogVersion).
+ *
+ * @param origin the id of the sending node, so a node can skip its own messages
+ * @param kind whether {@code name} is an entity name, a collection role or the catalog
+ * @param name the entity name or collection role
+ * @param id the entity id or collection owner id, or null for every entry of the region; the sender's new
+ *           version for {@link Kind#CATALOG_VERSION}
+ */
+public record CacheInvalidation(String origin, Kind kind, String name, Serializable id) implements Serializable {
+
+    public enum Kind {
+        ENTITY,
+        COLLECTION,
+        CATALOG_VERSION
+    }
+}
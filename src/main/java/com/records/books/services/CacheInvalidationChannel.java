@@ -0,0 +1,22 @@
+package com.records.books.services;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries second-level cache invalidations and catalog version bumps between application nodes (see
+ * SecondLevelCacheInvalidator and CatalogVersion).
+ * The default is {@link LocalCacheInvalidationChannel}, which only reaches subscribers in the same JVM;
+ * a deployment with several nodes declares a bean backed by its message bus (Redis pub/sub, JMS, ...).
+ * Delivery may be asynchronous and at most once: the region time to live bounds what a lost message costs.
+ */
+public interface CacheInvalidationChannel {
+
+    /**
+     * Sends the invalidation to every subscriber, including the sender's own.
+     */
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> subscriber);
+
+    void unsubscribe(Consumer<CacheInvalidation> subscriber);
+}
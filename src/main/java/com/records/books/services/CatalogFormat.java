@@ -0,0 +1,33 @@
+package com.records.books.services;
+
+/**
+ * Line-oriented feed formats supported by the bulk import and export.
+ */
+public enum CatalogFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    CatalogFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Resolves a format from a request parameter such as {@code csv} or {@code ndjson}.
+     *
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    public static CatalogFormat fromParameter(String value) {
+        for (CatalogFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format: " + value);
+    }
+}
@@ -0,0 +1,134 @@
+package com.records.books.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.records.books.entities.Book;
+import com.records.books.entities.OutboxEvent;
+import com.records.books.entities.PublishingDate;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.descriptor.ValueBinder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Records catalog changes in the outbox, in the transaction of the write that makes them, so an event
+ * exists if and only if its change commits. {@link OutboxRelay} delivers them to downstream systems.
+ * <p>
+ * Callers record events after the changed rows are flushed, so that the row locks order the events of
+ * one aggregate. Each payload carries the aggregate's state and version after the change; a publishing
+ * date carries the number of its books, and every book that moves records its own event. The events of
+ * one call are inserted as one JDBC batch, on the connection of the transaction.
+ */
+@Service
+public class CatalogOutbox {
+
+    public static final String BOOK = "Book";
+    public static final String PUBLISHING_DATE = "PublishingDate";
+
+    public static final String BOOK_CREATED = "BookCreated";
+    public static final String BOOK_UPDATED = "BookUpdated";
+    public static final String BOOK_RENAMED = "BookRenamed";
+    public static final String PUBLISHING_DATE_CREATED = "PublishingDateCreated";
+    public static final String PUBLISHING_DATE_UPDATED = "PublishingDateUpdated";
+
+    private static final String INSERT = "INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, created_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public CatalogOutbox(EntityManager entityManager, ObjectMapper objectMapper) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookChanged(String eventType, Book book) {
+        booksChanged(eventType, List.of(book));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void booksChanged(String eventType, Collection<Book> books) {
+        Instant now = Instant.now();
+        List<OutboxEvent> events = new ArrayList<>(books.size());
+        for (Book book : books) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("id", book.getId());
+            payload.put("title", book.getTitle());
+            payload.put("genre", book.getGenre());
+            payload.put("publishingDate", book.getPublishingDate() == null ? null : book.getPublishingDate().getDate());
+            payload.put("version", book.getVersion());
+            events.add(event(BOOK, book.getId(), eventType, payload, now));
+        }
+        record(events);
+    }
+
+    /**
+     * @param bookCount the number of books on the date after the change
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishingDateChanged(String eventType, PublishingDate publishingDate, int bookCount) {
+        publishingDatesChanged(eventType, List.of(publishingDate), date -> bookCount);
+    }
+
+    /**
+     * @param bookCount returns the number of books on a date after the change
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishingDatesChanged(String eventType, Collection<PublishingDate> publishingDates,
+                                       ToIntFunction<PublishingDate> bookCount) {
+        Instant now = Instant.now();
+        List<OutboxEvent> events = new ArrayList<>(publishingDates.size());
+        for (PublishingDate publishingDate : publishingDates) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("id", publishingDate.getId());
+            payload.put("date", publishingDate.getDate());
+            payload.put("bookCount", bookCount.applyAsInt(publishingDate));
+            payload.put("version", publishingDate.getVersion());
+            events.add(event(PUBLISHING_DATE, publishingDate.getId(), eventType, payload, now));
+        }
+        record(events);
+    }
+
+    private OutboxEvent event(String aggregateType, Long aggregateId, String eventType, Map<String, Object> payload,
+                              Instant createdAt) {
+        try {
+            return new OutboxEvent(aggregateType, aggregateId, eventType, objectMapper.writeValueAsString(payload), createdAt);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + eventType + " of " + aggregateType + "#" + aggregateId, e);
+        }
+    }
+
+    private void record(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        // Bound the way Hibernate binds OutboxEvent.createdAt, which depends on the dialect.
+        ValueBinder<Instant> createdAt = session.getTypeConfiguration()
+                .getBasicTypeForJavaType(Instant.class).getJdbcValueBinder();
+        session.doWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                for (OutboxEvent event : events) {
+                    insert.setString(1, event.getAggregateType());
+                    insert.setLong(2, event.getAggregateId());
+                    insert.setString(3, event.getEventType());
+                    insert.setString(4, event.getPayload());
+                    createdAt.bind(insert, event.getCreatedAt(), 5, session);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        });
+    }
+}
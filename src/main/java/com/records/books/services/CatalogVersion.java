@@ -0,0 +1,88 @@
+package com.records.books.services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Version and last-modified time of the whole catalog, bumped by every write path after it commits.
+ * Read pages derive their ETag and Last-Modified headers from it, so an unchanged catalog can be
+ * answered with 304 Not Modified before any query runs.
+ * <p>
+ * The version starts at the startup time, so validators handed out before a restart never match
+ * again. It is held per instance, and every bump is published on the {@link CacheInvalidationChannel}:
+ * an instance that hears of a bump elsewhere moves past both its own version and the sender's, so its
+ * validators change too and instances that saw the same writes converge on the same ETag. A lost message
+ * leaves an instance's validators stale until the next bump it hears of.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong version;
+    private final CacheInvalidationChannel channel;
+    private final Consumer<CacheInvalidation> subscriber = this::apply;
+    private volatile long lastModified;
+
+    public CatalogVersion(CacheInvalidationChannel channel) {
+        long now = System.currentTimeMillis();
+        this.version = new AtomicLong(now);
+        this.lastModified = now;
+        this.channel = channel;
+        channel.subscribe(subscriber);
+    }
+
+    @PreDestroy
+    public void close() {
+        channel.unsubscribe(subscriber);
+    }
+
+    /**
+     * Marks the catalog as changed. Inside a transaction the bump is applied after commit, so
+     * readers never validate against a version whose data is not visible yet, and rollbacks do not bump.
+     */
+    public void bump() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment();
+                }
+            });
+        } else {
+            increment();
+        }
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public String getEtag() {
+        return "\"catalog-" + Long.toString(version.get(), 36) + "\"";
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    private void increment() {
+        lastModified = System.currentTimeMillis();
+        long bumped = version.incrementAndGet();
+        channel.publish(new CacheInvalidation(nodeId, CacheInvalidation.Kind.CATALOG_VERSION, null, bumped));
+    }
+
+    private void apply(CacheInvalidation invalidation) {
+        if (invalidation.kind() != CacheInvalidation.Kind.CATALOG_VERSION || nodeId.equals(invalidation.origin())) {
+            return;
+        }
+        long received = (Long) invalidation.id();
+        // Always moves, even if the sender's version is behind, since this node has not seen the sender's write.
+        version.accumulateAndGet(received, (current, remote) -> Math.max(current + 1, remote));
+        lastModified = System.currentTimeMillis();
+    }
+}
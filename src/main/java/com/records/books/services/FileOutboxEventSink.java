@@ -0,0 +1,51 @@
+package com.records.books.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.records.books.entities.OutboxEvent;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link OutboxEventSink} that appends each event as a JSON line to a file, and forces the batch to disk
+ * before the relay removes it from the outbox.
+ */
+public class FileOutboxEventSink implements OutboxEventSink {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileOutboxEventSink(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (OutboxEvent event : events) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("id", event.getId());
+            line.put("aggregateType", event.getAggregateType());
+            line.put("aggregateId", event.getAggregateId());
+            line.put("eventType", event.getEventType());
+            line.put("createdAt", event.getCreatedAt().toString());
+            line.put("payload", objectMapper.readTree(event.getPayload()));
+            lines.append(objectMapper.writeValueAsString(line)).append('\n');
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.records.books.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process {@link CacheInvalidationChannel}: delivers each invalidation synchronously to the subscribers
+ * of this instance. Enough for a single node, and for tests that run several nodes in one JVM on a shared
+ * instance.
+ */
+public class LocalCacheInvalidationChannel implements CacheInvalidationChannel {
+    private static final Logger logger = LoggerFactory.getLogger(LocalCacheInvalidationChannel.class);
+
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        for (Consumer<CacheInvalidation> subscriber : subscribers) {
+            try {
+                subscriber.accept(invalidation);
+            } catch (RuntimeException e) {
+                logger.warn("Cache invalidation subscriber failed on {}", invalidation, e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public void unsubscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.remove(subscriber);
+    }
+}
@@ -0,0 +1,26 @@
+package com.records.books.services;
+
+import com.records.books.entities.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.List;
+
+/**
+ * {@link OutboxEventSink} that logs one line per event, for local runs.
+ */
+public class LogOutboxEventSink implements OutboxEventSink {
+    private static final Logger logger = LoggerFactory.getLogger(LogOutboxEventSink.class);
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            logger.atInfo()
+                    .addKeyValue("eventId", event.getId())
+                    .addKeyValue("aggregateType", event.getAggregateType())
+                    .addKeyValue("aggregateId", event.getAggregateId())
+                    .addKeyValue("eventType", event.getEventType())
+                    .log("{} {}#{} {}", event.getEventType(), event.getAggregateType(), event.getAggregateId(),
+                            event.getPayload());
+        }
+    }
+}
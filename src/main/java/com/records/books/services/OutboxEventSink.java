@@ -0,0 +1,21 @@
+package com.records.books.services;
+
+import com.records.books.entities.OutboxEvent;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where {@link OutboxRelay} delivers catalog change events. The default logs them, or appends them to
+ * {@code books.outbox.sink-file} (see {@link LogOutboxEventSink} and {@link FileOutboxEventSink}); a
+ * deployment that feeds other systems declares a bean backed by its message bus.
+ * <p>
+ * Delivery is at least once: a batch whose delivery fails, or whose removal from the outbox does not
+ * commit, is delivered again. Consumers drop repeats by event id, or by aggregate version.
+ */
+public interface OutboxEventSink {
+
+    /**
+     * Delivers the events in the given order. If it throws, all of them stay in the outbox.
+     */
+    void publish(List<OutboxEvent> events) throws IOException;
+}
@@ -0,0 +1,166 @@
+package com.records.books.services;
+
+import com.records.books.entities.OutboxEvent;
+import com.records.books.repositories.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Delivers the events recorded by {@link CatalogOutbox} to the {@link OutboxEventSink}, enabled with
+ * {@code books.outbox.relay.enabled}.
+ * <p>
+ * Every {@code poll-interval} the relay takes up to {@code batch-size} of the oldest events, delivers them
+ * in id order and deletes them in the same transaction, and goes on while batches come back full. One
+ * batch is delivered at a time, so the events of an aggregate arrive in the order they were recorded. A
+ * failed delivery rolls back and the batch is delivered again on the next poll.
+ * <p>
+ * Lag is published as {@code books.outbox.lag}, the time from recording to delivery of each event, and
+ * {@code books.outbox.oldest.age}, the age in seconds of the oldest event not yet delivered.
+ */
+@Component
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxEventSink sink;
+    private final int batchSize;
+    // Not a monitor: a relay runs transactions, which would pin a virtual thread to its carrier.
+    private final Lock relayLock = new ReentrantLock();
+    private final AtomicReference<Instant> oldestPending = new AtomicReference<>();
+    private final ScheduledExecutorService poller;
+    private final Counter delivered;
+    private final Counter failures;
+    private final Timer lag;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, TransactionTemplate transactionTemplate,
+                       OutboxEventSink sink, MeterRegistry meterRegistry,
+                       @Value("${books.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${books.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${books.outbox.relay.poll-interval:1s}") Duration pollInterval) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.delivered = Counter.builder("books.outbox.delivered")
+                .description("Catalog change events delivered from the outbox")
+                .register(meterRegistry);
+        this.failures = Counter.builder("books.outbox.failures")
+                .description("Outbox batches whose delivery failed and will be retried")
+                .register(meterRegistry);
+        this.lag = Timer.builder("books.outbox.lag")
+                .description("Time from recording a catalog change event to delivering it")
+                .register(meterRegistry);
+        Gauge.builder("books.outbox.oldest.age", oldestPending, OutboxRelay::ageSeconds)
+                .description("Age in seconds of the oldest catalog change event not yet delivered")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        if (enabled) {
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "outbox-relay");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = pollInterval.toMillis();
+            poller.scheduleWithFixedDelay(this::relayQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+            logger.info("Relaying the outbox to {}: batches of {}, every {} ms",
+                    sink.getClass().getSimpleName(), batchSize, intervalMillis);
+        } else {
+            poller = null;
+        }
+    }
+
+    /**
+     * Delivers batches until the outbox is empty or a delivery fails.
+     *
+     * @return the number of events delivered
+     * @throws RuntimeException if a delivery failed; its batch stays in the outbox
+     */
+    public int relay() {
+        relayLock.lock();
+        try {
+            int total = 0;
+            int count;
+            do {
+                count = relayBatch();
+                total += count;
+            } while (count == batchSize);
+            return total;
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (poller != null) {
+            poller.shutdown();
+            poller.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private void relayQuietly() {
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            logger.warn("Relaying the outbox failed, retrying on the next poll: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events;
+        try {
+            events = transactionTemplate.execute(status -> {
+                List<OutboxEvent> batch = outboxEventRepository.findAllByOrderByIdAsc(Limit.of(batchSize));
+                if (!batch.isEmpty()) {
+                    oldestPending.set(batch.get(0).getCreatedAt());
+                    try {
+                        sink.publish(batch);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    outboxEventRepository.deleteAllInBatch(batch);
+                }
+                return batch;
+            });
+        } catch (RuntimeException e) {
+            failures.increment();
+            throw e;
+        }
+        Instant now = Instant.now();
+        for (OutboxEvent event : events) {
+            lag.record(Duration.between(event.getCreatedAt(), now));
+        }
+        delivered.increment(events.size());
+        if (events.size() < batchSize) {
+            oldestPending.set(null);
+        }
+        return events.size();
+    }
+
+    private static double ageSeconds(AtomicReference<Instant> oldest) {
+        Instant createdAt = oldest.get();
+        return createdAt == null ? 0 : Duration.between(createdAt, Instant.now()).toMillis() / 1000.0;
+    }
+}
@@ -1,10 +1,13 @@
 package com.records.books.services;
 
+import com.records.books.dto.BookSummary;
+import com.records.books.dto.KeysetPage;
+import com.records.books.dto.PublishingDateCatalogEntry;
 import com.records.books.entities.PublishingDate;
-import com.records.books.entities.Book;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Collection;
 import java.util.Collections;
 
 /**
@@ -19,6 +22,18 @@ public interface PublishingDateService {
      */
     List<PublishingDate> getAllPublishingDates();
 
+    /**
+     * Retrieves one page of publishing dates together with the titles and genres of their first books,
+     * at most {@code books.catalog.books-per-date} per date, and the number of books of each date, loaded
+     * as a read-only projection. Pages are keyed on the date, so every page costs the same two bounded
+     * queries regardless of how deep it is or how many books its dates have.
+     *
+     * @param after the date of the last entry on the previous page, or null for the first page
+     * @param limit the maximum number of publishing dates on the page
+     * @return the page of catalog entries ordered by date
+     */
+    KeysetPage<PublishingDateCatalogEntry, LocalDate> getPublishingDateCatalog(LocalDate after, int limit);
+
     /**
      * Retrieves a publishing date by its ID, including its associated books.
      *
@@ -27,25 +42,75 @@ public interface PublishingDateService {
      */
     Optional<PublishingDate> getPublishingDateById(Long id);
 
+    /**
+     * Retrieves a publishing date with its books in a single statement, bypassing the second-level cache,
+     * so the version and the books come from the same snapshot. Use it to build the entity passed to
+     * {@link #updatePublishingDate}.
+     *
+     * @param id the ID of the publishing date to retrieve
+     * @return an Optional containing the PublishingDate, or empty if not found
+     */
+    Optional<PublishingDate> getPublishingDateForUpdate(Long id);
+
+    /**
+     * Retrieves a publishing date by its ID together with summaries of its books, without loading entities.
+     *
+     * @param id the ID of the publishing date to retrieve
+     * @return an Optional containing the catalog entry, or empty if not found
+     */
+    Optional<PublishingDateCatalogEntry> getPublishingDateEntry(Long id);
+
     /**
      * Saves a new publishing date and associates it with the specified books.
      *
      * @param publishingDate the PublishingDate entity to save
-     * @param books the list of Books to associate with the publishing date
+     * @param bookIds the IDs of the books to associate with the publishing date
      */
-    void savePublishingDate(PublishingDate publishingDate, List<Book> books);
+    void savePublishingDate(PublishingDate publishingDate, List<Long> bookIds);
 
     /**
-     * Updates an existing publishing date and associates it with the specified books.
+     * Saves several new publishing dates in one transaction.
+     *
+     * @param publishingDates the PublishingDate entities to save
+     * @return the saved publishing dates
+     */
+    List<PublishingDate> savePublishingDates(List<PublishingDate> publishingDates);
+
+    /**
+     * Saves several new publishing dates in one transaction and moves the specified books onto each of them.
+     *
+     * @param publishingDates the PublishingDate entities to save
+     * @param bookIds the IDs of the books for each publishing date, in the same order
+     * @return the saved publishing dates
+     * @throws IllegalArgumentException if there are not as many book ID lists as publishing dates
+     */
+    List<PublishingDate> savePublishingDates(List<PublishingDate> publishingDates, List<? extends Collection<Long>> bookIds);
+
+    /**
+     * Updates an existing publishing date and replaces its books with the specified ones, in one transaction.
+     * The update only applies if the stored version is still the version of the given entity; on success
+     * the entity's version is advanced to the new stored version.
      *
      * @param publishingDate the PublishingDate entity to update
-     * @param books the list of Books to associate with the publishing date
+     * @param bookIds the IDs of the books to associate with the publishing date
      * @throws IllegalArgumentException if the publishing date does not exist
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the publishing date was changed
+     *         since its version was read
+     */
+    void updatePublishingDate(PublishingDate publishingDate, List<Long> bookIds);
+
+    /**
+     * Moves the specified books to a publishing date using set-based UPDATE statements,
+     * chunked so that large ID lists stay within database parameter limits.
+     *
+     * @param publishingDateId the ID of the publishing date to assign
+     * @param bookIds the IDs of the books to move
+     * @return the number of books updated
      */
-    void updatePublishingDate(PublishingDate publishingDate, List<Book> books);
+    int assignBooks(Long publishingDateId, Collection<Long> bookIds);
 
     /**
-     * Finds a publishing date by its date.
+     * Finds a publishing date by its date, with its books loaded in the same statement.
      *
      * @param date the LocalDate to search for
      * @return an Optional containing the PublishingDate, or empty if not found
@@ -54,11 +119,12 @@ public interface PublishingDateService {
 
     /**
      * Retrieves all books associated with a publishing date identified by the given date.
+     * Results are served from {@link BooksByDateCache}, which write paths keep up to date.
      *
      * @param date the LocalDate of the publishing date
-     * @return a list of Books associated with the publishing date, or an empty list if not found
+     * @return an immutable list of book summaries for the publishing date, or an empty list if not found
      */
-    default List<Book> getBooksByPublishingDate(LocalDate date) {
+    default List<BookSummary> getBooksByPublishingDate(LocalDate date) {
         return Collections.emptyList(); 
     }
 }
\ No newline at end of file
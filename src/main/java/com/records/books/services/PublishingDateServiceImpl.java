@@ -1,61 +1,244 @@
 package com.records.books.services;
 
-import com.records.books.entities.PublishingDate;
+import com.records.books.dto.BookSummary;
+import com.records.books.dto.CatalogRow;
+import com.records.books.dto.KeysetPage;
+import com.records.books.dto.PublishingDateCatalogEntry;
 import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import com.records.books.repositories.BookRepository;
 import com.records.books.repositories.PublishingDateRepository;
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Timed(value = "books.service", description = "Latency of catalog service methods", histogram = true)
 public class PublishingDateServiceImpl implements PublishingDateService {
 
+    private static final int BULK_UPDATE_CHUNK_SIZE = 1000;
+
     private final PublishingDateRepository publishingDateRepository;
+    private final BookRepository bookRepository;
+    private final BooksByDateCache booksByDateCache;
+    private final BookStatsService bookStatsService;
+    private final CatalogVersion catalogVersion;
+    private final SecondLevelCacheInvalidator secondLevelCacheInvalidator;
+    private final BookTitleWriteBehind bookTitleWriteBehind;
+    private final CatalogOutbox catalogOutbox;
+    private final int catalogBooksPerDate;
 
-    public PublishingDateServiceImpl(PublishingDateRepository publishingDateRepository) {
+    public PublishingDateServiceImpl(PublishingDateRepository publishingDateRepository, BookRepository bookRepository,
+                                     BooksByDateCache booksByDateCache, BookStatsService bookStatsService,
+                                     CatalogVersion catalogVersion, SecondLevelCacheInvalidator secondLevelCacheInvalidator,
+                                     BookTitleWriteBehind bookTitleWriteBehind, CatalogOutbox catalogOutbox,
+                                     @Value("${books.catalog.books-per-date:20}") int catalogBooksPerDate) {
         this.publishingDateRepository = publishingDateRepository;
+        this.bookRepository = bookRepository;
+        this.booksByDateCache = booksByDateCache;
+        this.bookStatsService = bookStatsService;
+        this.catalogVersion = catalogVersion;
+        this.secondLevelCacheInvalidator = secondLevelCacheInvalidator;
+        this.bookTitleWriteBehind = bookTitleWriteBehind;
+        this.catalogOutbox = catalogOutbox;
+        this.catalogBooksPerDate = catalogBooksPerDate;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<PublishingDate> getAllPublishingDates() {
         return publishingDateRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<PublishingDateCatalogEntry, LocalDate> getPublishingDateCatalog(LocalDate after, int limit) {
+        int pageSize = KeysetPage.clampLimit(limit);
+        List<PublishingDateCatalogEntry> entries = (after == null)
+                ? publishingDateRepository.findFirstCatalogPage(Limit.of(pageSize + 1))
+                : publishingDateRepository.findCatalogPageAfter(after, Limit.of(pageSize + 1));
+
+        LocalDate nextKey = null;
+        if (entries.size() > pageSize) {
+            entries = entries.subList(0, pageSize);
+            nextKey = entries.get(pageSize - 1).getDate();
+        }
+        if (entries.isEmpty()) {
+            return new KeysetPage<>(entries, null);
+        }
+
+        Map<Long, PublishingDateCatalogEntry> entriesById = new HashMap<>();
+        for (PublishingDateCatalogEntry entry : entries) {
+            entriesById.put(entry.getId(), entry);
+        }
+        for (CatalogRow row : publishingDateRepository.findCatalogRows(entriesById.keySet(), catalogBooksPerDate)) {
+            PublishingDateCatalogEntry entry = entriesById.get(row.getPublishingDateId());
+            entry.setBookCount(row.getBookCount());
+            entry.getBooks().add(bookTitleWriteBehind.withPendingTitle(
+                            new BookSummary(row.getBookId(), row.getTitle(), row.getGenre()),
+                            BookSummary::getId, BookSummary::withTitle));
+        }
+        return new KeysetPage<>(entries, nextKey);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<PublishingDate> getPublishingDateById(Long id) {
+        // By id rather than with a join fetch, so the date, its book ids and the books come from the second-level cache.
+        Optional<PublishingDate> publishingDate = publishingDateRepository.findById(id);
+        publishingDate.ifPresent(date -> Hibernate.initialize(date.getBooks()));
+        return publishingDate;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<PublishingDate> getPublishingDateForUpdate(Long id) {
         return publishingDateRepository.findPublishingDateWithBooks(id);
     }
 
     @Override
-    public void savePublishingDate(PublishingDate publishingDate, List<Book> books) {
-        publishingDate.setBooks(books);
-        publishingDateRepository.save(publishingDate);
+    @Transactional(readOnly = true)
+    public Optional<PublishingDateCatalogEntry> getPublishingDateEntry(Long id) {
+        return publishingDateRepository.findDateById(id).map(date -> {
+            PublishingDateCatalogEntry entry = new PublishingDateCatalogEntry(id, date);
+            entry.getBooks().addAll(bookTitleWriteBehind.withPendingTitles(
+                    bookRepository.findBooksByPublishingDate(date), BookSummary::getId, BookSummary::withTitle));
+            return entry;
+        });
+    }
+
+    @Override
+    @Transactional
+    public List<PublishingDate> savePublishingDates(List<PublishingDate> publishingDates) {
+        return savePublishingDates(publishingDates, Collections.nCopies(publishingDates.size(), List.of()));
+    }
+
+    @Override
+    @Transactional
+    public List<PublishingDate> savePublishingDates(List<PublishingDate> publishingDates,
+                                                    List<? extends Collection<Long>> bookIds) {
+        if (bookIds.size() != publishingDates.size()) {
+            throw new IllegalArgumentException("Expected book IDs for " + publishingDates.size()
+                    + " publishing dates, got " + bookIds.size() + ".");
+        }
+        List<PublishingDate> saved = publishingDateRepository.saveAll(publishingDates);
+        publishingDateRepository.flush();
+        saved.forEach(publishingDate -> booksByDateCache.evict(publishingDate.getDate()));
+        catalogVersion.bump();
+        Map<Long, Integer> bookCounts = new HashMap<>();
+        for (int i = 0; i < saved.size(); i++) {
+            bookCounts.put(saved.get(i).getId(), assignBooks(saved.get(i).getId(), bookIds.get(i)));
+        }
+        catalogOutbox.publishingDatesChanged(CatalogOutbox.PUBLISHING_DATE_CREATED, saved,
+                publishingDate -> bookCounts.get(publishingDate.getId()));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void savePublishingDate(PublishingDate publishingDate, List<Long> bookIds) {
+        // Flushed so a duplicate date fails here, before the outbox event is recorded.
+        PublishingDate saved = publishingDateRepository.saveAndFlush(publishingDate);
+        booksByDateCache.evict(saved.getDate());
+        catalogVersion.bump();
+        int bookCount = assignBooks(saved.getId(), bookIds);
+        catalogOutbox.publishingDateChanged(CatalogOutbox.PUBLISHING_DATE_CREATED, saved, bookCount);
     }
 
     @Override
-    public void updatePublishingDate(PublishingDate publishingDate, List<Book> books) {
-        if (!publishingDateRepository.existsById(publishingDate.getId())) {
-            throw new IllegalArgumentException("Publishing date with ID " + publishingDate.getId() + " does not exist.");
+    @Transactional
+    public void updatePublishingDate(PublishingDate publishingDate, List<Long> bookIds) {
+        Long id = publishingDate.getId();
+        LocalDate previousDate = publishingDateRepository.findById(id)
+                .map(PublishingDate::getDate)
+                .orElseThrow(() -> new IllegalArgumentException("Publishing date with ID " + id + " does not exist."));
+        bookStatsService.recordPublishingDate(id, -1);
+        secondLevelCacheInvalidator.bulkUpdating(PublishingDate.class, List.of(id));
+        // Checks the editor's version and locks the row before any book is touched.
+        if (publishingDateRepository.updateDate(id, publishingDate.getDate(), publishingDate.getVersion()) == 0) {
+            throw new ObjectOptimisticLockingFailureException(PublishingDate.class, id);
         }
-        PublishingDate existing = publishingDateRepository.findPublishingDateWithBooks(publishingDate.getId())
-                .orElseThrow(() -> new IllegalArgumentException("Publishing date with ID " + publishingDate.getId() + " does not exist."));
-        for (Book book : existing.getBooks()) {
-            book.setPublishingDate(null);
+        publishingDate.setVersion(publishingDate.getVersion() + 1);
+        List<Long> removed = new ArrayList<>(bookRepository.findIdsByPublishingDateId(id));
+        removed.removeAll(new HashSet<>(bookIds));
+        for (List<Long> chunk : chunks(removed)) {
+            secondLevelCacheInvalidator.bulkUpdating(Book.class, chunk);
+            bookRepository.clearPublishingDate(chunk);
+            catalogOutbox.booksChanged(CatalogOutbox.BOOK_UPDATED, bookRepository.findAllById(chunk));
         }
-        publishingDate.setBooks(books);
-        publishingDateRepository.save(publishingDate);
+        secondLevelCacheInvalidator.bulkUpdatingCollections(SecondLevelCacheInvalidator.BOOKS_ROLE, List.of(id));
+        // The books kept on the date count again at its new day; assignBooks moves the rest.
+        bookStatsService.recordPublishingDate(id, 1);
+        booksByDateCache.evict(previousDate);
+        booksByDateCache.evict(publishingDate.getDate());
+        catalogVersion.bump();
+        int bookCount = assignBooks(publishingDate.getId(), bookIds);
+        catalogOutbox.publishingDateChanged(CatalogOutbox.PUBLISHING_DATE_UPDATED, publishingDate, bookCount);
     }
 
     @Override
+    @Transactional
+    public int assignBooks(Long publishingDateId, Collection<Long> bookIds) {
+        if (bookIds == null || bookIds.isEmpty()) {
+            return 0;
+        }
+        // Read before the bulk updates: they clear the persistence context and would detach the proxy.
+        LocalDate date = publishingDateRepository.getReferenceById(publishingDateId).getDate();
+        int updated = 0;
+        for (List<Long> chunk : chunks(new ArrayList<>(new LinkedHashSet<>(bookIds)))) {
+            Set<Long> dateIds = new HashSet<>();
+            dateIds.add(publishingDateId);
+            for (PublishingDateCatalogEntry previous : bookRepository.findPublishingDatesOfBooks(chunk)) {
+                booksByDateCache.evict(previous.getDate());
+                dateIds.add(previous.getId());
+            }
+            secondLevelCacheInvalidator.bulkUpdating(Book.class, chunk);
+            secondLevelCacheInvalidator.bulkUpdatingCollections(SecondLevelCacheInvalidator.BOOKS_ROLE, dateIds);
+            bookStatsService.recordBooks(chunk, -1);
+            updated += bookRepository.assignPublishingDate(publishingDateId, chunk);
+            bookStatsService.recordBooks(chunk, 1);
+            catalogOutbox.booksChanged(CatalogOutbox.BOOK_UPDATED, bookRepository.findAllById(chunk));
+        }
+        booksByDateCache.evict(date);
+        catalogVersion.bump();
+        return updated;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<PublishingDate> findByDate(LocalDate date) {
-        return publishingDateRepository.findByDate(date);
+        return publishingDateRepository.findWithBooksByDate(date);
     }
 
     @Override
-    public List<Book> getBooksByPublishingDate(LocalDate date) {
-        Optional<PublishingDate> publishingDateOpt = findByDate(date);
-        return publishingDateOpt.map(PublishingDate::getBooks).orElseGet(ArrayList::new);
+    @Transactional(readOnly = true)
+    public List<BookSummary> getBooksByPublishingDate(LocalDate date) {
+        List<BookSummary> books = booksByDateCache.get(date,
+                () -> List.copyOf(bookRepository.findBooksByPublishingDate(date)));
+        // Pending titles are applied to what is returned, never to the cached list.
+        return bookTitleWriteBehind.withPendingTitles(books, BookSummary::getId, BookSummary::withTitle);
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BULK_UPDATE_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + BULK_UPDATE_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,234 @@
+package com.records.books.services;
+
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.cache.spi.access.CachedDomainDataAccess;
+import org.hibernate.cache.spi.access.CollectionDataAccess;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Keeps the second-level cache of {@link Book} and {@link PublishingDate} coherent, on this node and across nodes.
+ * <p>
+ * Hibernate updates the entity entries of this node itself, but not the {@code PublishingDate.books}
+ * collection when a book changes its date, because the collection is the inverse side of
+ * {@code Book.publishingDate}; those entries are evicted here after commit. Every committed change is also
+ * published on the {@link CacheInvalidationChannel}, and invalidations from other nodes are applied to
+ * this node's cache.
+ * <p>
+ * Bulk statements bypass all of this; their callers lock the entries of the rows they change with
+ * {@link #bulkUpdating} and {@link #bulkUpdatingCollections}.
+ */
+@Component
+public class SecondLevelCacheInvalidator implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    static final String BOOKS_ROLE = PublishingDate.class.getName() + ".books";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final EntityManagerFactory entityManagerFactory;
+    private final SessionFactoryImplementor sessionFactory;
+    private final CacheInvalidationChannel channel;
+    private final Consumer<CacheInvalidation> subscriber = this::apply;
+    private final Counter sent;
+    private final Counter received;
+
+    public SecondLevelCacheInvalidator(EntityManagerFactory entityManagerFactory, CacheInvalidationChannel channel,
+                                       MeterRegistry meterRegistry) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.channel = channel;
+        this.sent = Counter.builder("books.l2cache.invalidations").tag("direction", "sent")
+                .description("Second-level cache invalidations exchanged with other nodes")
+                .register(meterRegistry);
+        this.received = Counter.builder("books.l2cache.invalidations").tag("direction", "received")
+                .description("Second-level cache invalidations exchanged with other nodes")
+                .register(meterRegistry);
+
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        listeners.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        listeners.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        channel.subscribe(subscriber);
+    }
+
+    @PreDestroy
+    public void close() {
+        channel.unsubscribe(subscriber);
+    }
+
+    /**
+     * Locks the cached entries of entities that a bulk statement of the current transaction is about to change,
+     * so that no transaction reads them from the cache or caches them again until this one completes. The
+     * entries are released at completion and, after commit, the other nodes are told to drop them. Call
+     * before the statement.
+     */
+    public void bulkUpdating(Class<?> entityClass, Collection<?> ids) {
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        if (persister.canWriteToCache()) {
+            EntityDataAccess access = persister.getCacheAccessStrategy();
+            lock(access, id -> access.generateCacheKey(id, persister, sessionFactory, null), ids,
+                    CacheInvalidation.Kind.ENTITY, persister.getEntityName());
+        }
+    }
+
+    /**
+     * Locks the cached collections of the given owners, like {@link #bulkUpdating(Class, Collection)}.
+     */
+    public void bulkUpdatingCollections(String role, Collection<?> ownerIds) {
+        CollectionPersister persister = sessionFactory.getMappingMetamodel().getCollectionDescriptor(role);
+        if (persister.hasCache()) {
+            CollectionDataAccess access = persister.getCacheAccessStrategy();
+            lock(access, id -> access.generateCacheKey(id, persister, sessionFactory, null), ownerIds,
+                    CacheInvalidation.Kind.COLLECTION, role);
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Book) {
+            evictBooksOf(publishingDateId(event.getPersister(), event.getState()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Book) {
+            Object[] oldState = event.getOldState();
+            Serializable after = publishingDateId(event.getPersister(), event.getState());
+            if (oldState == null) {
+                // Updated without a loaded snapshot: the previous date is unknown.
+                sessionFactory.getCache().evictCollectionData(BOOKS_ROLE);
+                publish(CacheInvalidation.Kind.COLLECTION, BOOKS_ROLE, null);
+            } else {
+                Serializable before = publishingDateId(event.getPersister(), oldState);
+                if (!Objects.equals(before, after)) {
+                    evictBooksOf(before);
+                    evictBooksOf(after);
+                }
+            }
+        }
+        publish(CacheInvalidation.Kind.ENTITY, event.getPersister().getEntityName(), (Serializable) event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Book) {
+            evictBooksOf(publishingDateId(event.getPersister(), event.getDeletedState()));
+        } else if (event.getEntity() instanceof PublishingDate) {
+            publish(CacheInvalidation.Kind.COLLECTION, BOOKS_ROLE, (Serializable) event.getId());
+        }
+        publish(CacheInvalidation.Kind.ENTITY, event.getPersister().getEntityName(), (Serializable) event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void lock(CachedDomainDataAccess access, Function<Object, Object> cacheKey, Collection<?> ids,
+                      CacheInvalidation.Kind kind, String name) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Bulk updates of cached data must run in a transaction");
+        }
+        SharedSessionContractImplementor session = EntityManagerFactoryUtils
+                .getTransactionalEntityManager(entityManagerFactory).unwrap(SharedSessionContractImplementor.class);
+        List<Object> keyIds = List.copyOf(ids);
+        Map<Object, SoftLock> locks = new LinkedHashMap<>();
+        for (Object id : keyIds) {
+            Object key = cacheKey.apply(id);
+            locks.put(key, access.lockItem(session, key, null));
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                locks.forEach((key, softLock) -> access.unlockItem(session, key, softLock));
+                if (status == STATUS_COMMITTED) {
+                    keyIds.forEach(id -> publish(kind, name, (Serializable) id));
+                }
+            }
+        });
+    }
+
+    private void evictBooksOf(Serializable publishingDateId) {
+        if (publishingDateId != null) {
+            sessionFactory.getCache().evictCollectionData(BOOKS_ROLE, publishingDateId);
+            publish(CacheInvalidation.Kind.COLLECTION, BOOKS_ROLE, publishingDateId);
+        }
+    }
+
+    private Serializable publishingDateId(EntityPersister bookPersister, Object[] state) {
+        Object publishingDate = state[bookPersister.getEntityMetamodel().getPropertyIndex("publishingDate")];
+        return publishingDate == null ? null
+                : (Serializable) sessionFactory.getPersistenceUnitUtil().getIdentifier(publishingDate);
+    }
+
+    private void publish(CacheInvalidation.Kind kind, String name, Serializable id) {
+        channel.publish(new CacheInvalidation(nodeId, kind, name, id));
+        sent.increment();
+    }
+
+    private void apply(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.origin()) || invalidation.kind() == CacheInvalidation.Kind.CATALOG_VERSION) {
+            return;
+        }
+        received.increment();
+        Cache cache = sessionFactory.getCache();
+        if (invalidation.kind() == CacheInvalidation.Kind.ENTITY) {
+            if (invalidation.id() == null) {
+                cache.evictEntityData(invalidation.name());
+            } else {
+                cache.evictEntityData(invalidation.name(), invalidation.id());
+            }
+        } else if (invalidation.id() == null) {
+            cache.evictCollectionData(invalidation.name());
+        } else {
+            cache.evictCollectionData(invalidation.name(), invalidation.id());
+        }
+    }
+}
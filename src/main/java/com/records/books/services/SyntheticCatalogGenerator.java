@@ -0,0 +1,177 @@
+package com.records.books.services;
+
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the catalog with synthetic data for development and load tests: consecutive publishing dates,
+ * and books spread over them with a Zipf skew, so a few dates carry many books and most carry few.
+ * Titles have a realistic spread of lengths over a Zipf-distributed vocabulary that starts with the
+ * common English words, and genres are skewed the same way. Output is deterministic for a random seed.
+ * <p>
+ * Rows are written in chunks, each in its own transaction with the persistence context flushed and
+ * cleared, so inserts go out in JDBC batches and memory stays bounded by the chunk size.
+ */
+@Service
+public class SyntheticCatalogGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticCatalogGenerator.class);
+    private static final int VOCABULARY_SIZE = 5000;
+    private static final int MAX_TITLE_WORDS = 12;
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final double UNKNOWN_GENRE_RATE = 0.05;
+    private static final List<String> GENRES = List.of("Fiction", "Mystery", "Romance", "Science Fiction", "Fantasy",
+            "Biography", "History", "Thriller", "Children", "Poetry", "Travel", "Cooking", "Science", "Self-Help", "Horror");
+    private static final String[] SYLLABLES = {"an", "bel", "cor", "dra", "el", "fen", "gar", "hol", "is", "jor",
+            "kel", "lun", "mor", "nar", "or", "pel", "quin", "ros", "sil", "tor", "ul", "val", "wen", "yr", "zan"};
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final String[] vocabulary;
+    private final double[] vocabularyCdf;
+    private final double[] genreCdf;
+
+    public SyntheticCatalogGenerator(EntityManager entityManager, TransactionTemplate transactionTemplate,
+                                     @Value("${books.import.chunk-size:1000}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.vocabulary = buildVocabulary();
+        this.vocabularyCdf = zipfCdf(VOCABULARY_SIZE, 1.0);
+        this.genreCdf = zipfCdf(GENRES.size(), 1.0);
+    }
+
+    /**
+     * Generates {@code dates} consecutive publishing dates starting at {@code firstDate} and {@code books} books.
+     * With no dates, the books are generated without a publishing date.
+     *
+     * @param skew the Zipf exponent of books per date; 0 spreads books evenly, 1 or more concentrates them
+     * @return the number of books written
+     */
+    public long generate(int dates, long books, double skew, LocalDate firstDate, long randomSeed) {
+        if (dates < 0 || books < 0 || skew < 0) {
+            throw new IllegalArgumentException("Dates, books and skew must not be negative");
+        }
+        long start = System.nanoTime();
+        Random random = new Random(randomSeed);
+        long[] dateIds = createDates(dates, firstDate);
+
+        double[] dateCdf = zipfCdf(dates, skew);
+        int[] rankToDate = shuffledIndexes(dates, random);
+        for (long from = 0; from < books; from += chunkSize) {
+            long count = Math.min(chunkSize, books - from);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (long i = 0; i < count; i++) {
+                    Book book = new Book(title(random), genre(random));
+                    if (dates > 0) {
+                        long dateId = dateIds[rankToDate[sample(dateCdf, random)]];
+                        book.setPublishingDate(entityManager.getReference(PublishingDate.class, dateId));
+                    }
+                    entityManager.persist(book);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        logger.info("Generated {} publishing dates and {} books (skew {}) in {} ms",
+                dates, books, skew, (System.nanoTime() - start) / 1_000_000);
+        return books;
+    }
+
+    private long[] createDates(int dates, LocalDate firstDate) {
+        long[] dateIds = new long[dates];
+        for (int from = 0; from < dates; from += chunkSize) {
+            int first = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = first; i < Math.min(dates, first + chunkSize); i++) {
+                    PublishingDate publishingDate = new PublishingDate(firstDate.plusDays(i));
+                    entityManager.persist(publishingDate);
+                    dateIds[i] = publishingDate.getId();
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        return dateIds;
+    }
+
+    /**
+     * Title of 1 to 12 words, most often 2 to 4, drawn from the skewed vocabulary.
+     */
+    String title(Random random) {
+        int words = Math.min(MAX_TITLE_WORDS, 1 + (int) Math.round(Math.abs(random.nextGaussian()) * 2.5));
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            String word = vocabulary[sample(vocabularyCdf, random)];
+            if (i > 0) {
+                title.append(' ');
+            }
+            title.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+        }
+        return title.length() > MAX_TITLE_LENGTH ? title.substring(0, MAX_TITLE_LENGTH) : title.toString();
+    }
+
+    private String genre(Random random) {
+        return random.nextDouble() < UNKNOWN_GENRE_RATE ? null : GENRES.get(sample(genreCdf, random));
+    }
+
+    private static String[] buildVocabulary() {
+        List<String> words = new ArrayList<>(BookSearchIndex.STOP_WORDS);
+        for (int i = 0; words.size() < VOCABULARY_SIZE; i++) {
+            StringBuilder word = new StringBuilder();
+            int n = i;
+            do {
+                word.append(SYLLABLES[n % SYLLABLES.length]);
+                n /= SYLLABLES.length;
+            } while (n > 0);
+            words.add(word.toString());
+        }
+        return words.toArray(String[]::new);
+    }
+
+    /**
+     * Cumulative distribution of a Zipf law with the given exponent over {@code n} ranks.
+     */
+    private static double[] zipfCdf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cdf[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cdf[rank] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, Random random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(cdf.length - 1, index >= 0 ? index : -index - 1);
+    }
+
+    private static int[] shuffledIndexes(int n, Random random) {
+        int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = swap;
+        }
+        return indexes;
+    }
+}
@@ -1,4 +1,4 @@
-<%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8" session="false"%>
 <%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
 
 <html>
@@ -29,11 +29,18 @@
             <tr>
                 <td>${book.title}</td>
                 <td>${book.genre}</td>
-                <td>${book.publishingDate != null ? book.publishingDate.date : "No Date Assigned"}</td>
+                <td>${book.publishingDate != null ? book.publishingDate : "No Date Assigned"}</td>
             </tr>
         </c:forEach>
     </table>
 
+    <p>
+        <a href="${pageContext.request.contextPath}/books?limit=${limit}">First page</a>
+        <c:if test="${not empty nextAfter}">
+            | <a href="${pageContext.request.contextPath}/books?after=${nextAfter}&limit=${limit}">Next page</a>
+        </c:if>
+    </p>
+
     <h2>Add a New Book</h2>
     <form action="${pageContext.request.contextPath}/books/add" method="post">
         <label>Title:</label> 
@@ -1,4 +1,4 @@
-<%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8" session="false"%>
 <%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
 <%@ taglib uri="http://www.springframework.org/tags/form" prefix="form" %>
 
@@ -21,25 +21,15 @@
         .message { color: green; }
         a { color: #007bff; text-decoration: none; }
         a:hover { text-decoration: underline; }
-        .debug { color: purple; font-size: 0.9em; }
     </style>
     <script>
         document.addEventListener('DOMContentLoaded', function() {
-            console.log("Page loaded at URL: " + window.location.href);
-
             var editForm = document.querySelector('form[action$="/publishingDates/update"]');
             var addForm = document.querySelector('form[action$="/publishingDates/add"]');
-            if (editForm) {
-                console.log("Edit form is visible");
-            }
-            if (addForm) {
-                console.log("Add form is visible");
-            }
 
             var links = document.querySelectorAll('a[href*="/edit/"]');
             links.forEach(function(link) {
                 link.addEventListener('click', function(event) {
-                    console.log("Edit link clicked: " + link.href);
                     link.style.pointerEvents = 'none';
                     setTimeout(function() {
                         link.style.pointerEvents = 'auto';
@@ -48,57 +38,69 @@
             });
 
             if (editForm) {
-                console.log("Edit form detected, preventing auto-submission");
                 editForm.addEventListener('submit', function(event) {
                     if (!event.submitter || event.submitter.textContent !== 'Update Date') {
-                        console.log("Blocking unintended form submission");
                         event.preventDefault();
-                    } else {
-                        console.log("Form submitted via 'Update Date' button");
                     }
                 });
             }
 
             if (addForm) {
-                console.log("Add form detected, preventing auto-submission");
                 addForm.addEventListener('submit', function(event) {
                     if (!event.submitter || event.submitter.textContent !== 'Save Date') {
-                        console.log("Blocking unintended form submission");
                         event.preventDefault();
-                    } else {
-                        console.log("Form submitted via 'Save Date' button");
                     }
                 });
             }
 
-            var cancelButtons = document.querySelectorAll('.cancel-btn');
-            cancelButtons.forEach(function(button) {
-                button.addEventListener('click', function(event) {
-                    console.log("Cancel button clicked, navigating to /publishingDates");
-                });
-            });
+            var bookSearch = document.querySelector('.book-search');
+            var bookPicker = document.querySelector('.book-picker');
+            var bookMore = document.querySelector('.book-more');
+            if (bookSearch && bookPicker) {
+                var pickerUrl = '${pageContext.request.contextPath}/books/picker';
+                var nextKey = null;
+                var searchTimer = null;
 
-            window.addEventListener('beforeunload', function(event) {
-                console.log("Page unloading, possible refresh or navigation");
-            });
+                var loadBooks = function(append) {
+                    var params = new URLSearchParams({ q: bookSearch.value, limit: 20 });
+                    if (append && nextKey) {
+                        params.append('afterTitle', nextKey.title);
+                        params.append('afterId', nextKey.id);
+                    }
+                    fetch(pickerUrl + '?' + params.toString())
+                        .then(function(response) { return response.json(); })
+                        .then(function(page) {
+                            if (!append) {
+                                Array.prototype.slice.call(bookPicker.options).forEach(function(option) {
+                                    if (!option.selected) {
+                                        bookPicker.removeChild(option);
+                                    }
+                                });
+                            }
+                            page.items.forEach(function(book) {
+                                if (!bookPicker.querySelector('option[value="' + book.id + '"]')) {
+                                    bookPicker.appendChild(new Option(book.title, book.id));
+                                }
+                            });
+                            nextKey = page.nextKey;
+                            bookMore.style.display = page.hasNext ? 'block' : 'none';
+                        });
+                };
 
-            window.addEventListener('popstate', function(event) {
-                console.log("Browser back/forward navigation detected, current URL: " + window.location.href);
-            });
+                bookSearch.addEventListener('input', function() {
+                    clearTimeout(searchTimer);
+                    searchTimer = setTimeout(function() { loadBooks(false); }, 250);
+                });
+                bookMore.addEventListener('click', function() {
+                    loadBooks(true);
+                });
+            }
         });
     </script>
 </head>
 <body>
     <h1>Publishing Dates</h1>
 
-    <div class="debug">
-        <p>Debug: editingMode = ${editingMode != null ? editingMode : 'not set'}</p>
-        <p>Debug: publishingDates size = ${publishingDates.size()}</p>
-        <p>Debug: books size = ${books.size()}</p>
-        <p>Debug: publishingDate ID = ${publishingDate.id != null ? publishingDate.id : 'not set'}</p>
-        <p>Debug: publishingDate Date = ${publishingDate.date != null ? publishingDate.date : 'not set'}</p>
-    </div>
-
     <c:if test="${not empty message}">
         <p class="message">${message}</p>
     </c:if>
@@ -131,6 +133,10 @@
                         <c:forEach var="book" items="${publishingDate.books}">
                             ${book.title} (${book.genre})<br/>
                         </c:forEach>
+                        <c:if test="${publishingDate.bookCount > publishingDate.books.size()}">
+                            <a href="${pageContext.request.contextPath}/books/range?from=${publishingDate.date}&to=${publishingDate.date}">
+                                and ${publishingDate.bookCount - publishingDate.books.size()} more</a>
+                        </c:if>
                     </c:if>
                     <c:if test="${empty publishingDate.books}">
                         No books assigned
@@ -143,6 +149,13 @@
         </c:forEach>
     </table>
 
+    <p>
+        <a href="${pageContext.request.contextPath}/publishingDates?limit=${limit}">First page</a>
+        <c:if test="${not empty nextAfter}">
+            | <a href="${pageContext.request.contextPath}/publishingDates?after=${nextAfter}&limit=${limit}">Next page</a>
+        </c:if>
+    </p>
+
     <c:if test="${editingMode == false}">
         <h2>Add a Publishing Date</h2>
         <form:form modelAttribute="publishingDate" action="${pageContext.request.contextPath}/publishingDates/add" method="post">
@@ -152,12 +165,14 @@
                 <form:errors path="date" cssClass="error"/>
             </div>
             <div>
-                <label>Books:</label>
-                <select name="bookIds" multiple>
-                    <c:forEach var="book" items="${books}">
-                        <option value="${book.id}">${book.title} (${book.genre})</option>
+                <label for="bookSearch">Books:</label>
+                <input type="search" id="bookSearch" class="book-search" placeholder="Type a title to search books" autocomplete="off"/>
+                <select name="bookIds" class="book-picker" multiple>
+                    <c:forEach var="book" items="${selectedBooks != null ? selectedBooks : publishingDate.books}">
+                        <option value="${book.id}" selected>${book.title}<c:if test="${selectedBooks == null}"> (${book.genre})</c:if></option>
                     </c:forEach>
                 </select>
+                <button type="button" class="book-more" style="display: none;">More books</button>
             </div>
             <button type="submit">Save Date</button>
         </form:form>
@@ -167,6 +182,7 @@
         <h2>Edit Publishing Date</h2>
         <form:form modelAttribute="publishingDate" action="${pageContext.request.contextPath}/publishingDates/update" method="post">
             <form:hidden path="id"/>
+            <form:hidden path="version"/>
             <div>
                 <form:label path="date">Date:</form:label>
                 <form:input path="date" type="date"/>
@@ -174,11 +190,13 @@
             </div>
             <div>
                 <h3>Edit Book Names</h3>
-                <select name="bookIds" multiple>
-                    <c:forEach var="book" items="${books}">
-                        <option value="${book.id}" ${publishingDate.books.contains(book) ? 'selected' : ''}>${book.title} (${book.genre})</option>
+                <input type="search" id="bookSearch" class="book-search" placeholder="Type a title to search books" autocomplete="off"/>
+                <select name="bookIds" class="book-picker" multiple>
+                    <c:forEach var="book" items="${selectedBooks != null ? selectedBooks : publishingDate.books}">
+                        <option value="${book.id}" selected>${book.title}<c:if test="${selectedBooks == null}"> (${book.genre})</c:if></option>
                     </c:forEach>
                 </select>
+                <button type="button" class="book-more" style="display: none;">More books</button>
             </div>
             <button type="submit">Update Date</button>
             <a href="${pageContext.request.contextPath}/publishingDates" class="cancel-btn" style="display: block; text-align: center;">Cancel</a>
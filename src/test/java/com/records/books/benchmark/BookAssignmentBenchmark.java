@@ -0,0 +1,78 @@
+package com.records.books.benchmark;
+
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import com.records.books.repositories.BookRepository;
+import com.records.books.repositories.PublishingDateRepository;
+import com.records.books.services.PublishingDateService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares assigning N books to a publishing date with the former per-entity loop
+ * (findAllById followed by one save per book) against the set-based bulk UPDATE.
+ * Run with {@code mvn test -Pbenchmark}; the book count is set with {@code -Dbenchmark.books}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+public class BookAssignmentBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(BookAssignmentBenchmark.class);
+    private static final int BOOKS = Integer.getInteger("benchmark.books", 5000);
+
+    @Autowired
+    private PublishingDateService publishingDateService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PublishingDateRepository publishingDateRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void compareLoopAndBulkAssignment() {
+        PublishingDate loopDate = publishingDateRepository.save(new PublishingDate(LocalDate.of(3000, 1, 1)));
+        PublishingDate bulkDate = publishingDateRepository.save(new PublishingDate(LocalDate.of(3000, 1, 2)));
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(new Book("Benchmark " + i, "Genre " + (i % 10)));
+        }
+        List<Long> bookIds = bookRepository.saveAll(books).stream().map(Book::getId).toList();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        long loopStart = System.nanoTime();
+        for (Book book : bookRepository.findAllById(bookIds)) {
+            book.setPublishingDate(loopDate);
+            bookRepository.save(book);
+        }
+        long loopMillis = (System.nanoTime() - loopStart) / 1_000_000;
+        long loopStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        long bulkStart = System.nanoTime();
+        int updated = publishingDateService.assignBooks(bulkDate.getId(), bookIds);
+        long bulkMillis = (System.nanoTime() - bulkStart) / 1_000_000;
+        long bulkStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(BOOKS, updated);
+        logger.info("Assigning {} books: loop {} ms / {} statements, bulk {} ms / {} statements",
+                BOOKS, loopMillis, loopStatements, bulkMillis, bulkStatements);
+    }
+}
@@ -0,0 +1,70 @@
+package com.records.books.benchmark;
+
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+
+/**
+ * Measures insert throughput for N books, persisted in chunks of 1,000 rows per transaction
+ * with the persistence context flushed and cleared after each chunk.
+ * Run with {@code mvn test -Pbenchmark -Dtest=BookInsertBenchmark -Dbenchmark.books=1000000}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+public class BookInsertBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(BookInsertBenchmark.class);
+    private static final int BOOKS = Integer.getInteger("benchmark.books", 100_000);
+    private static final int CHUNK_SIZE = 1000;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void insertBooks() {
+        PublishingDate publishingDate = transactionTemplate.execute(status -> {
+            PublishingDate date = new PublishingDate(LocalDate.of(3001, 1, 1));
+            entityManager.persist(date);
+            return date;
+        });
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long start = System.nanoTime();
+        for (int from = 0; from < BOOKS; from += CHUNK_SIZE) {
+            int first = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                PublishingDate date = entityManager.getReference(PublishingDate.class, publishingDate.getId());
+                for (int i = first; i < Math.min(first + CHUNK_SIZE, BOOKS); i++) {
+                    Book book = new Book("Inserted " + i, "Genre " + (i % 20));
+                    book.setPublishingDate(date);
+                    entityManager.persist(book);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        logger.info("Inserted {} books in {} ms ({} rows/s, {} statements prepared)",
+                BOOKS, millis, BOOKS * 1000L / millis, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,99 @@
+package com.records.books.benchmark;
+
+import com.records.books.dto.BookListItem;
+import com.records.books.services.BookSearchIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+/**
+ * Measures full-text search latency over N synthetic four-word titles drawn from a Zipf-like vocabulary,
+ * with the index memory-mapped from a temporary directory as recommended for large catalogs.
+ * Run with {@code mvn test -Pbenchmark -Dtest=BookSearchBenchmark -Dbenchmark.titles=5000000}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+public class BookSearchBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchBenchmark.class);
+    private static final int TITLES = Integer.getInteger("benchmark.titles", 500_000);
+    private static final int QUERIES = Integer.getInteger("benchmark.queries", 2000);
+    private static final int VOCABULARY = 20_000;
+    private static final String[] GENRES = {"Fiction", "Poetry", "History", "Science", "Fantasy", "Biography"};
+
+    @TempDir
+    static Path indexDir;
+
+    @DynamicPropertySource
+    static void indexPath(DynamicPropertyRegistry registry) {
+        registry.add("books.search.index-path", () -> indexDir.toString());
+    }
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Test
+    public void searchLatency() {
+        long start = System.nanoTime();
+        long indexed = bookSearchIndex.indexAll(LongStream.range(0, TITLES).mapToObj(i -> {
+            Random random = new Random(i);
+            String title = word(random) + " " + word(random) + " " + word(random) + " " + word(random);
+            return new BookListItem(i + 1, title, GENRES[(int) (i % GENRES.length)], null);
+        }));
+        logger.info("Indexed {} titles in {} ms", indexed, (System.nanoTime() - start) / 1_000_000);
+
+        Random random = new Random(7);
+        String[] terms = new String[QUERIES];
+        String[] pairs = new String[QUERIES];
+        String[] prefixes = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            terms[i] = word(random);
+            pairs[i] = word(random) + " " + word(random);
+            String word = word(random);
+            prefixes[i] = word.substring(0, Math.min(3, word.length())) + "*";
+        }
+        measure("one term", terms);
+        measure("two terms", pairs);
+        measure("prefix", prefixes);
+    }
+
+    private void measure(String name, String[] queries) {
+        for (int i = 0; i < Math.min(200, queries.length); i++) {
+            bookSearchIndex.search(queries[i], 0, 20);
+        }
+        long[] micros = new long[queries.length];
+        long hits = 0;
+        for (int i = 0; i < queries.length; i++) {
+            long start = System.nanoTime();
+            hits += bookSearchIndex.search(queries[i], 0, 20).getHits().size();
+            micros[i] = (System.nanoTime() - start) / 1000;
+        }
+        Arrays.sort(micros);
+        logger.info("{} queries over {} titles: p50 {} us, p95 {} us, p99 {} us, max {} us ({} hits returned)",
+                name, TITLES, percentile(micros, 50), percentile(micros, 95), percentile(micros, 99),
+                micros[micros.length - 1], hits);
+    }
+
+    /**
+     * Picks a vocabulary word with a roughly Zipfian frequency.
+     */
+    private static String word(Random random) {
+        int rank = (int) Math.floor(Math.pow(VOCABULARY, random.nextDouble()));
+        return "w" + Integer.toString(rank, 36) + "x";
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+}
@@ -0,0 +1,119 @@
+package com.records.books.benchmark;
+
+import com.records.books.dto.BookSummary;
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import com.records.books.repositories.BookRepository;
+import com.records.books.repositories.PublishingDateRepository;
+import com.records.books.services.PublishingDateService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Measures the latency of looking up the books of one publishing date in a catalog of N books:
+ * the former two-step lazy path (load the date, then initialize its books collection) against the
+ * single indexed projection query, and the cached service call on top of it.
+ * Run with {@code mvn test -Pbenchmark -Dtest=BooksByDateLookupBenchmark -Dbenchmark.books=1000000}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+public class BooksByDateLookupBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(BooksByDateLookupBenchmark.class);
+    private static final int BOOKS = Integer.getInteger("benchmark.books", 100_000);
+    private static final int DATES = Integer.getInteger("benchmark.dates", 10_000);
+    private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 2000);
+    private static final int CHUNK_SIZE = 1000;
+    private static final LocalDate FIRST_DATE = LocalDate.of(4000, 1, 1);
+
+    @Autowired
+    private PublishingDateService publishingDateService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PublishingDateRepository publishingDateRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void compareDateLookups() {
+        long[] dateIds = seed();
+        Random random = new Random(42);
+        LocalDate[] probes = new LocalDate[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            probes[i] = FIRST_DATE.plusDays(random.nextInt(dateIds.length));
+        }
+
+        measure("two-step lazy", probes, date -> transactionTemplate.execute(status ->
+                publishingDateRepository.findByDate(date)
+                        .map(publishingDate -> publishingDate.getBooks().stream()
+                                .map(book -> new BookSummary(book.getId(), book.getTitle(), book.getGenre()))
+                                .toList())
+                        .orElseGet(List::of)));
+        measure("projection query", probes, bookRepository::findBooksByPublishingDate);
+        measure("cached service, cold", probes, publishingDateService::getBooksByPublishingDate);
+        measure("cached service, warm", probes, publishingDateService::getBooksByPublishingDate);
+    }
+
+    private long[] seed() {
+        long[] dateIds = new long[DATES];
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < DATES; i++) {
+                PublishingDate publishingDate = new PublishingDate(FIRST_DATE.plusDays(i));
+                entityManager.persist(publishingDate);
+                dateIds[i] = publishingDate.getId();
+            }
+        });
+        for (int from = 0; from < BOOKS; from += CHUNK_SIZE) {
+            int first = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = first; i < Math.min(first + CHUNK_SIZE, BOOKS); i++) {
+                    Book book = new Book("Lookup " + i, "Genre " + (i % 20));
+                    book.setPublishingDate(entityManager.getReference(PublishingDate.class, dateIds[i % DATES]));
+                    entityManager.persist(book);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        return dateIds;
+    }
+
+    private void measure(String name, LocalDate[] probes, Function<LocalDate, List<BookSummary>> lookup) {
+        for (int i = 0; i < Math.min(200, probes.length); i++) {
+            lookup.apply(probes[i]);
+        }
+        long[] micros = new long[probes.length];
+        long books = 0;
+        for (int i = 0; i < probes.length; i++) {
+            long start = System.nanoTime();
+            books += lookup.apply(probes[i]).size();
+            micros[i] = (System.nanoTime() - start) / 1000;
+        }
+        Arrays.sort(micros);
+        logger.info("{} over {} books / {} dates: p50 {} us, p95 {} us, p99 {} us ({} books returned)",
+                name, BOOKS, DATES, percentile(micros, 50), percentile(micros, 95), percentile(micros, 99), books);
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+}
@@ -0,0 +1,173 @@
+package com.records.books.benchmark;
+
+import com.records.books.BooksApplication;
+import com.records.books.entities.PublishingDate;
+import com.records.books.repositories.PublishingDateRepository;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares request execution on Tomcat's platform thread pool with virtual threads: fires bursts of
+ * concurrent {@code /books/books-by-date} requests and reports throughput, latency percentiles, rejected
+ * requests and the peak number of live threads. In the virtual mode it also records
+ * {@code jdk.VirtualThreadPinned} events and fails if a virtual thread blocked while pinned in the JDBC path.
+ * <p>
+ * The virtual mode needs Java 21 or later and is skipped on older runtimes. Run with
+ * {@code mvn test -Pbenchmark -Dtest=ExecutionModeBenchmark -Dmode.concurrency=2000}.
+ */
+@Tag("benchmark")
+public class ExecutionModeBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionModeBenchmark.class);
+    private static final int CONCURRENCY = Integer.getInteger("mode.concurrency", 2000);
+    private static final int ROUNDS = Integer.getInteger("mode.rounds", 5);
+    private static final int DATES = Integer.getInteger("mode.dates", 1000);
+    private static final long BOOKS = Long.getLong("mode.books", 50_000);
+    private static final List<String> JDBC_PACKAGES = List.of("com.mysql.", "com.zaxxer.hikari.", "org.h2.", "org.hibernate.");
+
+    private record Round(long[] latencies, int rejected, int failed) {
+    }
+
+    @Test
+    public void compareExecutionModes() throws Exception {
+        run(false);
+        if (JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+            run(true);
+        } else {
+            logger.info("virtual threads: skipped, Java {} has no virtual threads", JavaVersion.getJavaVersion());
+        }
+    }
+
+    private void run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual threads" : "platform threads";
+        try (ConfigurableApplicationContext context = start(virtualThreads);
+             RecordingStream pinned = new RecordingStream()) {
+            AtomicInteger pinnedInJdbc = new AtomicInteger();
+            if (virtualThreads) {
+                pinned.enable("jdk.VirtualThreadPinned").withStackTrace();
+                pinned.onEvent("jdk.VirtualThreadPinned", event -> {
+                    if (event.getStackTrace() != null && event.getStackTrace().getFrames().stream().anyMatch(this::isJdbcFrame)) {
+                        pinnedInJdbc.incrementAndGet();
+                    }
+                });
+                pinned.startAsync();
+            }
+
+            String baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            LocalDate[] dates = context.getBean(PublishingDateRepository.class).findAll().stream()
+                    .map(PublishingDate::getDate)
+                    .toArray(LocalDate[]::new);
+            ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            Random random = new Random(42);
+
+            burst(client, baseUrl, dates, random);
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            List<Long> latencies = new ArrayList<>();
+            int rejected = 0;
+            int failed = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                Round round = burst(client, baseUrl, dates, random);
+                Arrays.stream(round.latencies()).forEach(latencies::add);
+                rejected += round.rejected();
+                failed += round.failed();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            clientExecutor.shutdown();
+
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            logger.info("{}: {} requests in bursts of {}, {} req/s, p50 {} ms, p99 {} ms, max {} ms, "
+                            + "{} rejected (503), {} failed, peak live threads {}",
+                    mode, sorted.length, CONCURRENCY, String.format("%.0f", sorted.length / seconds),
+                    millis(percentile(sorted, 50)), millis(percentile(sorted, 99)), millis(sorted[sorted.length - 1]),
+                    rejected, failed, threads.getPeakThreadCount());
+            if (virtualThreads) {
+                assertEquals(0, pinnedInJdbc.get(), "Virtual threads were pinned while blocking in the JDBC path");
+            }
+        }
+    }
+
+    /**
+     * Sends {@link #CONCURRENCY} requests at once and waits for all responses.
+     */
+    private Round burst(HttpClient client, String baseUrl, LocalDate[] dates, Random random) {
+        long[] latencies = new long[CONCURRENCY];
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<CompletableFuture<Void>> responses = new ArrayList<>(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            int index = i;
+            HttpRequest request = HttpRequest.newBuilder(URI.create(
+                    baseUrl + "/books/books-by-date?date=" + dates[random.nextInt(dates.length)])).GET().build();
+            long start = System.nanoTime();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        latencies[index] = (System.nanoTime() - start) / 1000;
+                        if (error != null || response.statusCode() >= 500 && response.statusCode() != 503) {
+                            failed.incrementAndGet();
+                        } else if (response.statusCode() == 503) {
+                            rejected.incrementAndGet();
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        return new Round(latencies, rejected.get(), failed.get());
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads) {
+        // Command-line arguments, because default properties would lose against application.properties.
+        return new SpringApplicationBuilder(BooksApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--books.seed.dates=" + DATES,
+                        "--books.seed.books=" + BOOKS,
+                        "--books.seed.skew=1.0",
+                        "--logging.level.com.records.books.config.RequestTimingFilter=WARN");
+    }
+
+    private boolean isJdbcFrame(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return JDBC_PACKAGES.stream().anyMatch(type::startsWith);
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+}
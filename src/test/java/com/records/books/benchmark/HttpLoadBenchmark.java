@@ -0,0 +1,260 @@
+package com.records.books.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * HTTP load driver: replays a weighted read/write mix against the page and API controllers from
+ * concurrent clients, then reports throughput and p50/p95/p99 latency per operation.
+ * <p>
+ * By default it starts the application on a random port with a synthetic catalog
+ * (see SyntheticCatalogGenerator). With {@code -Dload.baseUrl=http://host:8080} it drives an
+ * already running instance instead. Run with
+ * {@code mvn test -Pbenchmark -Dtest=HttpLoadBenchmark -Dload.books=100000 -Dload.threads=16 -Dload.seconds=30}.
+ * Other settings: {@code load.dates}, {@code load.skew}, {@code load.warmupSeconds} and {@code load.writePercent}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Tag("benchmark")
+public class HttpLoadBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(HttpLoadBenchmark.class);
+    private static final int THREADS = Integer.getInteger("load.threads", 16);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 5);
+    private static final int WRITE_PERCENT = Integer.getInteger("load.writePercent", 5);
+    private static final int SAMPLE_BOOKS = 5000;
+    private static final String[] SEARCH_TERMS = {"the", "bel", "cor dra", "an*", "mor", "sil tor", "fen*", "war"};
+
+    private record Operation(String name, int weight, Function<Random, HttpRequest> request) {
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private String baseUrl;
+    private long[] bookIds;
+    private String[] dates;
+
+    @DynamicPropertySource
+    static void catalogSize(DynamicPropertyRegistry registry) {
+        registry.add("books.seed.dates", () -> Integer.getInteger("load.dates", 1000));
+        registry.add("books.seed.books", () -> Long.getLong("load.books", 100_000));
+        registry.add("books.seed.skew", () -> System.getProperty("load.skew", "1.0"));
+        registry.add("logging.level.com.records.books.config.RequestTimingFilter", () -> "WARN");
+    }
+
+    @Test
+    public void replayReadWriteMix() throws Exception {
+        baseUrl = System.getProperty("load.baseUrl", "http://localhost:" + port);
+        sampleCatalog();
+        List<Operation> operations = operations();
+
+        run(operations, WARMUP_SECONDS);
+        long start = System.nanoTime();
+        Map<String, List<Long>> latencies = run(operations, SECONDS);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        report(operations, latencies, elapsedSeconds);
+        if (System.getProperty("load.baseUrl") == null) {
+            reportConnections();
+        }
+    }
+
+    private List<Operation> operations() {
+        int readWeight = 100 - WRITE_PERCENT;
+        List<Operation> operations = new ArrayList<>();
+        operations.add(new Operation("GET /books", readWeight * 15, random -> get("/books")));
+        operations.add(new Operation("GET /books?after", readWeight * 10, random -> get("/books?after=" + randomBook(random))));
+        operations.add(new Operation("GET /publishingDates", readWeight * 10, random -> get("/publishingDates?after=" + randomDate(random))));
+        operations.add(new Operation("GET /books/books-by-date", readWeight * 20, random -> get("/books/books-by-date?date=" + randomDate(random))));
+        operations.add(new Operation("GET /api/books/{id}", readWeight * 25, random -> get("/api/books/" + randomBook(random))));
+        operations.add(new Operation("GET /books/search", readWeight * 15, random ->
+                get("/books/search?q=" + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)].replace(" ", "+"))));
+        operations.add(new Operation("GET /books/stats", readWeight * 5, random -> get("/books/stats?by=month")));
+        operations.add(new Operation("POST /api/books", WRITE_PERCENT * 50, random -> json("POST", "/api/books",
+                "{\"title\":\"Load test " + random.nextInt(1_000_000) + "\",\"genre\":\"Fiction\"}")));
+        operations.add(new Operation("PATCH /api/books/{id}/title", WRITE_PERCENT * 50, random -> json("PATCH",
+                "/api/books/" + randomBook(random) + "/title", "{\"title\":\"Renamed " + random.nextInt(1_000_000) + "\"}")));
+        return operations;
+    }
+
+    /**
+     * Runs the mix from all client threads for the given time and returns the latencies in microseconds per operation.
+     */
+    private Map<String, List<Long>> run(List<Operation> operations, int seconds) throws Exception {
+        int totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Map<String, List<Long>>>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(executor.submit(() -> {
+                Random random = ThreadLocalRandom.current();
+                Map<String, List<Long>> latencies = new HashMap<>();
+                while (System.nanoTime() < deadline) {
+                    Operation operation = pick(operations, totalWeight, random);
+                    HttpRequest request = operation.request().apply(random);
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    long micros = (System.nanoTime() - start) / 1000;
+                    String name = response.statusCode() >= 500 ? operation.name() + " (error)" : operation.name();
+                    latencies.computeIfAbsent(name, key -> new ArrayList<>()).add(micros);
+                }
+                return latencies;
+            }));
+        }
+        Map<String, List<Long>> merged = new HashMap<>();
+        for (Future<Map<String, List<Long>>> worker : workers) {
+            worker.get().forEach((name, values) -> merged.computeIfAbsent(name, key -> new ArrayList<>()).addAll(values));
+        }
+        executor.shutdown();
+        return merged;
+    }
+
+    private void report(List<Operation> operations, Map<String, List<Long>> latencies, double elapsedSeconds) {
+        Map<String, List<Long>> ordered = new LinkedHashMap<>();
+        operations.forEach(operation -> ordered.put(operation.name(), latencies.getOrDefault(operation.name(), List.of())));
+        latencies.forEach(ordered::putIfAbsent);
+        List<Long> all = new ArrayList<>();
+        logger.info("{} clients for {} s against {}", THREADS, SECONDS, baseUrl);
+        ordered.forEach((name, values) -> {
+            all.addAll(values);
+            logLine(name, values, elapsedSeconds);
+        });
+        logLine("all", all, elapsedSeconds);
+    }
+
+    /**
+     * Logs how long each route held a connection and the longest wait for one, which stays near zero
+     * while the pool is not saturated. Only available when the benchmark started the application.
+     */
+    private void reportConnections() {
+        for (Timer timer : meterRegistry.find("books.web.connection.hold").timers()) {
+            logger.info("connection hold {} {}: mean {} ms, max {} ms", timer.getId().getTag("method"),
+                    timer.getId().getTag("route"), String.format("%.2f", timer.mean(TimeUnit.MILLISECONDS)),
+                    String.format("%.2f", timer.max(TimeUnit.MILLISECONDS)));
+        }
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").timer();
+        if (acquire != null) {
+            logger.info("connection pool: {} acquisitions, max wait {} ms", acquire.count(),
+                    String.format("%.2f", acquire.max(TimeUnit.MILLISECONDS)));
+        }
+    }
+
+    private static void logLine(String name, List<Long> values, double elapsedSeconds) {
+        if (values.isEmpty()) {
+            return;
+        }
+        long[] sorted = values.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        logger.info("{}: {} requests, {} req/s, p50 {} ms, p95 {} ms, p99 {} ms, max {} ms",
+                name, sorted.length, String.format("%.1f", sorted.length / elapsedSeconds),
+                millis(percentile(sorted, 50)), millis(percentile(sorted, 95)), millis(percentile(sorted, 99)),
+                millis(sorted[sorted.length - 1]));
+    }
+
+    /**
+     * Reads ids and publishing dates of a sample of books through the API, so requests hit existing rows
+     * and popular dates are requested as often as they occur.
+     */
+    private void sampleCatalog() throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        List<String> sampledDates = new ArrayList<>();
+        String after = "";
+        while (ids.size() < SAMPLE_BOOKS) {
+            HttpResponse<String> response = client.send(get("/api/books?limit=500" + after), HttpResponse.BodyHandlers.ofString());
+            JsonNode page = objectMapper.readTree(response.body());
+            for (JsonNode book : page.get("items")) {
+                ids.add(book.get("id").asLong());
+                if (book.hasNonNull("publishingDate")) {
+                    sampledDates.add(book.get("publishingDate").asText());
+                }
+            }
+            if (!page.get("hasNext").asBoolean()) {
+                break;
+            }
+            after = "&after=" + page.get("nextKey").asLong();
+        }
+        if (ids.isEmpty() || sampledDates.isEmpty()) {
+            throw new IllegalStateException("The catalog at " + baseUrl + " has no dated books to replay against");
+        }
+        bookIds = ids.stream().mapToLong(Long::longValue).toArray();
+        dates = sampledDates.toArray(String[]::new);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest json(String method, String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private long randomBook(Random random) {
+        return bookIds[random.nextInt(bookIds.length)];
+    }
+
+    private String randomDate(Random random) {
+        return dates[random.nextInt(dates.length)];
+    }
+
+    private static Operation pick(List<Operation> operations, int totalWeight, Random random) {
+        int value = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            value -= operation.weight();
+            if (value < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+}
@@ -0,0 +1,94 @@
+package com.records.books.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that ConcurrencyLimitFilter queues requests beyond the limit and rejects them after the queue timeout.
+ */
+public class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(100), meterRegistry);
+
+    /**
+     * Tests that a request beyond the limit gets 503 with Retry-After and that the permit is free again afterwards.
+     */
+    @Test
+    public void testRequestBeyondLimit_isRejectedAfterQueueTimeout() throws Exception {
+        CountDownLatch admitted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slowRequest = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/books"), new MockHttpServletResponse(), (request, response) -> {
+                    admitted.countDown();
+                    await(release);
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("books.web.requests.active").gauge().value());
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/books"), rejected, new MockFilterChain());
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("books.web.requests.rejected").counter().count());
+
+        release.countDown();
+        slowRequest.get(5, TimeUnit.SECONDS);
+        MockHttpServletResponse next = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/books"), next, new MockFilterChain());
+        assertEquals(200, next.getStatus());
+        assertEquals(0.0, meterRegistry.get("books.web.requests.active").gauge().value());
+    }
+
+    /**
+     * Tests that actuator endpoints are served while the limit is exhausted.
+     */
+    @Test
+    public void testActuator_bypassesLimit() throws Exception {
+        CountDownLatch admitted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slowRequest = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/books"), new MockHttpServletResponse(), (request, response) -> {
+                    admitted.countDown();
+                    await(release);
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(admitted.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse health = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), health, new MockFilterChain());
+
+        release.countDown();
+        slowRequest.get(5, TimeUnit.SECONDS);
+        assertEquals(200, health.getStatus());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.records.books.config;
+
+import com.records.books.dto.KeysetPage;
+import com.records.books.services.BookService;
+import com.records.books.services.PublishingDateService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies the service, repository, Hibernate and connection pool metrics and their Prometheus export.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+public class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private PublishingDateService publishingDateService;
+
+    /**
+     * Tests that service calls are timed per method and repository results are counted per method.
+     */
+    @Test
+    public void testServiceAndRepositoryMetrics_areRecordedPerMethod() {
+        long byDateCalls = serviceCalls("PublishingDateServiceImpl", "getBooksByPublishingDate");
+        long pageCalls = serviceCalls("BookService", "getBooksPage");
+
+        publishingDateService.getBooksByPublishingDate(LocalDate.of(3400, 1, 1));
+        bookService.getBooksPage(null, KeysetPage.DEFAULT_LIMIT);
+
+        assertEquals(byDateCalls + 1, serviceCalls("PublishingDateServiceImpl", "getBooksByPublishingDate"));
+        assertEquals(pageCalls + 1, serviceCalls("BookService", "getBooksPage"));
+        assertEquals(0, meterRegistry.get("books.repository.rows")
+                .tag("repository", "BookRepository").tag("method", "findBooksByPublishingDate").summary().max());
+    }
+
+    /**
+     * Tests that the scrape endpoint exports the histograms needed for SLOs and the pool and Hibernate metrics.
+     */
+    @Test
+    public void testPrometheusEndpoint_exportsHistograms() throws Exception {
+        publishingDateService.getBooksByPublishingDate(LocalDate.of(3400, 1, 2));
+        mockMvc.perform(get("/books")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("books_service_seconds_bucket{class=\"com.records.books.services.PublishingDateServiceImpl\"")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket{")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket{")))
+                .andExpect(content().string(containsString("hikaricp_connections_active{")))
+                .andExpect(content().string(containsString("hibernate_statements_total{")))
+                .andExpect(content().string(containsString("books_repository_rows_count{")));
+    }
+
+    private long serviceCalls(String service, String method) {
+        Timer timer = meterRegistry.find("books.service")
+                .tag("class", "com.records.books.services." + service).tag("method", method).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,61 @@
+package com.records.books.config;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that the id sequences are moved past ids stored without them.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class PooledSequenceInitializerTest {
+
+    private static final long STORED_ID = 5_000_000;
+
+    @Autowired
+    private PooledSequenceInitializer pooledSequenceInitializer;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Tests that the next block of book ids starts after an id the sequence did not hand out, and that
+     * running the initializer again does not move the sequence back.
+     */
+    @Test
+    public void testSequence_isMovedPastStoredIds() {
+        transactionTemplate.executeWithoutResult(status -> entityManager.createNativeQuery(
+                        "INSERT INTO books (id, title, version) VALUES (?1, 'Stored before the sequence', 0)")
+                .setParameter(1, STORED_ID)
+                .executeUpdate());
+        try {
+            pooledSequenceInitializer.afterSingletonsInstantiated();
+            long first = nextBookSequenceValue();
+            pooledSequenceInitializer.afterSingletonsInstantiated();
+            long second = nextBookSequenceValue();
+
+            // The pooled optimizer uses the 50 ids up to the value it reads.
+            assertTrue(first - 50 >= STORED_ID, "Sequence at " + first);
+            assertTrue(second > first, "Sequence moved back from " + first + " to " + second);
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> entityManager.createNativeQuery(
+                            "DELETE FROM books WHERE id = ?1")
+                    .setParameter(1, STORED_ID)
+                    .executeUpdate());
+        }
+    }
+
+    private long nextBookSequenceValue() {
+        return transactionTemplate.execute(status -> ((Number) entityManager
+                .createNativeQuery("SELECT NEXT VALUE FOR books_seq").getSingleResult()).longValue());
+    }
+}
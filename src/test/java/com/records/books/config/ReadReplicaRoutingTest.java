@@ -0,0 +1,218 @@
+package com.records.books.config;
+
+import com.records.books.dto.BookSummary;
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import com.records.books.repositories.PublishingDateRepository;
+import com.records.books.services.BookService;
+import com.records.books.services.PublishingDateService;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies read/write routing against two embedded databases: a primary and a "replica" that only
+ * receives the primary's content when the test calls {@link #replicate()}, so replication lag is explicit.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReadReplicaRoutingTest {
+    private static final String SUFFIX = UUID.randomUUID().toString();
+    private static final String PRIMARY_URL = "jdbc:h2:mem:primary_" + SUFFIX + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica_" + SUFFIX + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PRIMARY_URL);
+        registry.add("books.datasource.replica-urls", () -> REPLICA_URL);
+        registry.add("books.seed.enabled", () -> false);
+    }
+
+    /**
+     * Gives the replica the schema Hibernate created on the primary before anything reads from it.
+     */
+    @TestConfiguration
+    static class ReplicaSchema {
+        @Bean
+        public ApplicationListener<ContextRefreshedEvent> replicateSchema() {
+            return event -> replicate();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PublishingDateService publishingDateService;
+
+    @Autowired
+    private PublishingDateRepository publishingDateRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Tests that writes go to the primary and read-only service methods read from the replica.
+     */
+    @Test
+    public void testReadOnlyTransactions_readFromReplica() throws SQLException {
+        assertInstanceOf(ReadWriteRoutingDataSource.class, dataSource);
+        Book book = new Book("Routed", "Genre");
+        bookService.saveBook(book);
+
+        assertEquals(1, countBooks(PRIMARY_URL, "Routed"));
+        assertTrue(bookService.getBook(book.getId()).isEmpty(), "The replica has not received the book yet");
+
+        replicate();
+
+        assertEquals("Routed", bookService.getBook(book.getId()).orElseThrow().getTitle());
+    }
+
+    /**
+     * Tests that the page after a POST reads the client's own write from the primary, while other clients
+     * and expired windows read the lagging replica.
+     */
+    @Test
+    public void testRedirectAfterPost_readsOwnWriteFromPrimary() throws Exception {
+        Book book = new Book("Before", "Genre");
+        bookService.saveBook(book);
+        replicate();
+
+        MvcResult result = mockMvc.perform(post("/books/updateBookTitle")
+                        .param("bookId", book.getId().toString())
+                        .param("newTitle", "After"))
+                .andExpect(status().is3xxRedirection())
+                .andReturn();
+        Cookie primaryUntil = result.getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(primaryUntil);
+
+        mockMvc.perform(get("/api/books/" + book.getId()).cookie(primaryUntil))
+                .andExpect(jsonPath("$.title", is("After")));
+        mockMvc.perform(get("/api/books/" + book.getId()))
+                .andExpect(jsonPath("$.title", is("Before")));
+        Cookie expired = new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(System.currentTimeMillis() - 1));
+        mockMvc.perform(get("/api/books/" + book.getId()).cookie(expired))
+                .andExpect(jsonPath("$.title", is("Before")));
+    }
+
+    /**
+     * Tests that what a session reads from the lagging replica is not put into the second-level cache, where
+     * it would be served to readers of the primary after the change has evicted its entry.
+     */
+    @Test
+    public void testReplicaReads_areNotCached() {
+        PublishingDate date = new PublishingDate(LocalDate.of(2500, 1, 1));
+        publishingDateService.savePublishingDates(List.of(date));
+        replicate();
+        PublishingDate form = publishingDateService.getPublishingDateForUpdate(date.getId()).orElseThrow();
+        form.setDate(LocalDate.of(2500, 1, 2));
+        publishingDateService.updatePublishingDate(form, List.of());
+        // As an invalidation from another node would.
+        entityManagerFactory.getCache().evict(PublishingDate.class, date.getId());
+
+        assertEquals(LocalDate.of(2500, 1, 1),
+                publishingDateService.getPublishingDateById(date.getId()).orElseThrow().getDate());
+
+        assertEquals(LocalDate.of(2500, 1, 2), transactionTemplate.execute(status ->
+                publishingDateRepository.findById(date.getId()).orElseThrow().getDate()));
+    }
+
+    /**
+     * Tests that the books of a date are cached from the primary, so a reload right after a write does not
+     * cache the list of the lagging replica.
+     */
+    @Test
+    public void testBooksByDate_areCachedFromPrimary() {
+        PublishingDate date = new PublishingDate(LocalDate.of(2500, 2, 1));
+        publishingDateService.savePublishingDates(List.of(date));
+        replicate();
+        assertTrue(publishingDateService.getBooksByPublishingDate(date.getDate()).isEmpty());
+
+        Book book = new Book("Cached from primary", "Genre");
+        book.setPublishingDate(date);
+        bookService.saveBook(book);
+
+        assertEquals(List.of("Cached from primary"), publishingDateService.getBooksByPublishingDate(date.getDate())
+                .stream().map(BookSummary::getTitle).toList());
+        replicate();
+        assertEquals(1, publishingDateService.getBooksByPublishingDate(date.getDate()).size());
+    }
+
+    /**
+     * Copies the primary's schema and rows to the replica.
+     */
+    private static void replicate() {
+        try {
+            Path script = Files.createTempFile("books-replica", ".sql");
+            try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+                 Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+                 Statement primaryStatement = primary.createStatement();
+                 Statement replicaStatement = replica.createStatement()) {
+                primaryStatement.execute("SCRIPT TO '" + script + "'");
+                replicaStatement.execute("DROP ALL OBJECTS");
+                replicaStatement.execute("RUNSCRIPT FROM '" + script + "'");
+            } finally {
+                Files.delete(script);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Replication failed", e);
+        }
+    }
+
+    private static int countBooks(String url, String title) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM books WHERE title = '" + title + "'")) {
+            rows.next();
+            return rows.getInt(1);
+        }
+    }
+}
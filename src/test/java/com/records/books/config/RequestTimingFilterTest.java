@@ -0,0 +1,113 @@
+package com.records.books.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.KeyValuePair;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Verifies the per-request timing line written by RequestTimingFilter.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class RequestTimingFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    public void setUp() {
+        appender.start();
+        ((Logger) LoggerFactory.getLogger(RequestTimingFilter.class)).addAppender(appender);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ((Logger) LoggerFactory.getLogger(RequestTimingFilter.class)).detachAppender(appender);
+    }
+
+    /**
+     * Tests that a request is logged once with its route pattern, status, statement count and connection time.
+     */
+    @Test
+    public void testRequest_isLoggedWithRouteStatusAndStatements() throws Exception {
+        mockMvc.perform(get("/api/books/-1"));
+
+        Map<String, Object> line = lastLine();
+        assertEquals("GET", line.get("method"));
+        assertEquals("/api/books/{id}", line.get("route"));
+        assertEquals(404, line.get("status"));
+        assertEquals(1L, line.get("statements"));
+        assertTrue((Double) line.get("connectionMs") > 0);
+        assertTrue((Double) line.get("durationMs") > 0);
+    }
+
+    /**
+     * Tests that a page answered from the catalog version is logged without statements.
+     */
+    @Test
+    public void testNotModified_isLoggedWithoutStatements() throws Exception {
+        String etag = mockMvc.perform(get("/books")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue((Long) lastLine().get("statements") > 0);
+
+        mockMvc.perform(get("/books").header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        Map<String, Object> line = lastLine();
+        assertEquals(304, line.get("status"));
+        assertEquals(0L, line.get("statements"));
+        assertEquals(0.0, line.get("connectionMs"));
+    }
+
+    /**
+     * Tests that the connection hold time is recorded per route.
+     */
+    @Test
+    public void testConnectionHold_isRecordedPerRoute() throws Exception {
+        long before = connectionHolds("/books/books-by-date");
+
+        mockMvc.perform(get("/books/books-by-date").param("date", "3500-01-01"));
+
+        assertEquals(before + 1, connectionHolds("/books/books-by-date"));
+        assertTrue(meterRegistry.get("books.web.connection.hold").tag("route", "/books/books-by-date").timer()
+                .max(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    private long connectionHolds(String route) {
+        Timer timer = meterRegistry.find("books.web.connection.hold").tag("method", "GET").tag("route", route).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private Map<String, Object> lastLine() {
+        assertTrue(!appender.list.isEmpty(), "No request was logged");
+        Map<String, Object> values = new HashMap<>();
+        for (KeyValuePair pair : appender.list.get(appender.list.size() - 1).getKeyValuePairs()) {
+            values.put(pair.key, pair.value);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,126 @@
+package com.records.books.controllers;
+
+import com.records.books.entities.PublishingDate;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the books JSON API.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class BookApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Tests creating a book and reading it back with a conditional GET.
+     */
+    @Test
+    public void testCreateAndGetBook_supportsConditionalGet() throws Exception {
+        PublishingDate publishingDate = persistDate(LocalDate.of(3100, 1, 1));
+
+        MvcResult created = mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\" Api Book \",\"genre\":\"Fiction\",\"publishingDateId\":" + publishingDate.getId() + "}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, startsWith("http://localhost/api/books/")))
+                .andExpect(jsonPath("$.title").value("Api Book"))
+                .andExpect(jsonPath("$.publishingDate").value("3100-01-01"))
+                .andReturn();
+        String location = created.getResponse().getHeader(HttpHeaders.LOCATION);
+
+        String etag = mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.genre").value("Fiction"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(location).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * Tests bulk creation and the books-by-date listing.
+     */
+    @Test
+    public void testBulkCreate_thenListByDate() throws Exception {
+        PublishingDate publishingDate = persistDate(LocalDate.of(3100, 2, 1));
+        String body = "[{\"title\":\"Bulk 1\",\"publishingDateId\":%d},{\"title\":\"Bulk 2\",\"publishingDateId\":%d},{\"title\":\"Bulk 3\"}]"
+                .formatted(publishingDate.getId(), publishingDate.getId());
+
+        mockMvc.perform(post("/api/books/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[2].publishingDate").doesNotExist());
+
+        mockMvc.perform(get("/api/books/by-date/3100-02-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].title").value("Bulk 1"));
+    }
+
+    /**
+     * Tests that invalid requests are rejected with 400 and unknown books with 404.
+     */
+    @Test
+    public void testInvalidRequests() throws Exception {
+        mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content("{\"title\":\" \"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/books/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"Orphan\",\"publishingDateId\":-1}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Invalid publishing date ID(s): [-1]"));
+        mockMvc.perform(post("/api/books/bulk").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/books/-1"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(patch("/api/books/-1/title").contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"New\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Tests renaming a book.
+     */
+    @Test
+    public void testUpdateTitle() throws Exception {
+        String location = mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Before\"}"))
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        mockMvc.perform(patch(location + "/title").contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"After\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("After"));
+    }
+
+    private PublishingDate persistDate(LocalDate date) {
+        PublishingDate publishingDate = new PublishingDate(date);
+        entityManager.persist(publishingDate);
+        entityManager.flush();
+        return publishingDate;
+    }
+}
@@ -0,0 +1,153 @@
+package com.records.books.controllers;
+
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import com.records.books.services.BookService;
+import com.records.books.services.CatalogVersion;
+import com.records.books.services.PublishingDateService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.flash;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that the catalog pages answer conditional GETs from the catalog version.
+ * Not transactional: the version is only bumped when a write commits.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class CatalogConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private PublishingDateService publishingDateService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Tests that a revalidation of an unchanged page is answered with 304 without touching the database.
+     */
+    @Test
+    public void testCatalogPages_unchangedCatalogIsNotModifiedWithoutQueries() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String url : List.of("/books", "/publishingDates", "/books/books-by-date?date=3200-01-01")) {
+            String etag = mockMvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            statistics.clear();
+            mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+
+            assertEquals(0, statistics.getConnectCount(), url);
+            assertEquals(0, statistics.getPrepareStatementCount(), url);
+        }
+    }
+
+    /**
+     * Tests that every committed write path invalidates previously issued validators.
+     */
+    @Test
+    public void testCatalogPages_writesChangeTheEtag() throws Exception {
+        String etag = etagOf("/books");
+
+        PublishingDate publishingDate = new PublishingDate(LocalDate.of(3200, 2, 1));
+        publishingDateService.savePublishingDate(publishingDate, List.of());
+        String afterDate = etagOf("/books");
+        assertNotEquals(etag, afterDate);
+        mockMvc.perform(get("/books").header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isOk());
+
+        Book book = new Book("Conditional", "Genre");
+        book.setPublishingDate(publishingDate);
+        bookService.saveBook(book);
+        String afterBook = etagOf("/books");
+        assertNotEquals(afterDate, afterBook);
+
+        bookService.updateBookTitle(book.getId(), "Conditional, renamed");
+        assertNotEquals(afterBook, etagOf("/books"));
+    }
+
+    /**
+     * Tests that If-Modified-Since alone never answers with 304, since a write in the same second as the
+     * Last-Modified header would go unnoticed, and that the header does not predate the last write.
+     */
+    @Test
+    public void testCatalogPages_lastModifiedAloneIsNotAValidator() throws Exception {
+        String lastModified = mockMvc.perform(get("/books"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        bookService.saveBook(new Book("Same second", "Genre"));
+
+        mockMvc.perform(get("/books").header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isOk());
+        long header = mockMvc.perform(get("/books"))
+                .andReturn().getResponse().getDateHeader(HttpHeaders.LAST_MODIFIED);
+        assertTrue(header >= catalogVersion.getLastModified());
+    }
+
+    /**
+     * Tests that a rolled back write keeps the version.
+     */
+    @Test
+    public void testBump_rolledBackWriteKeepsVersion() {
+        long version = catalogVersion.getVersion();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            bookService.saveBook(new Book("Rolled back", "Genre"));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(version, catalogVersion.getVersion());
+    }
+
+    /**
+     * Tests that a page carrying a flash message is rendered even if the catalog did not change.
+     */
+    @Test
+    public void testCatalogPages_flashMessageIsAlwaysRendered() throws Exception {
+        String etag = etagOf("/publishingDates");
+
+        mockMvc.perform(get("/publishingDates").header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .flashAttr("error", "No publishing date found"))
+                .andExpect(status().isOk())
+                .andExpect(flash().attributeCount(0));
+    }
+
+    private String etagOf(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,131 @@
+package com.records.books.controllers;
+
+import com.records.books.entities.Book;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import java.sql.SQLException;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the publishing dates JSON API.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class PublishingDateApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Tests creating a publishing date with books and reading it back without entity recursion.
+     */
+    @Test
+    public void testCreateWithBooks_thenGet() throws Exception {
+        Book book = new Book("Dated by API", "Fiction");
+        entityManager.persist(book);
+        entityManager.flush();
+
+        String location = mockMvc.perform(post("/api/publishing-dates").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"date\":\"3200-01-01\",\"bookIds\":[" + book.getId() + "]}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.date").value("3200-01-01"))
+                .andExpect(jsonPath("$.books", hasSize(1)))
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books[0].title").value("Dated by API"))
+                .andExpect(jsonPath("$.books[0].publishingDate").doesNotExist());
+    }
+
+    /**
+     * Tests bulk creation, duplicate dates and paging.
+     */
+    @Test
+    public void testBulkCreate_rejectsDuplicates() throws Exception {
+        mockMvc.perform(post("/api/publishing-dates/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"date\":\"3200-02-01\"},{\"date\":\"3200-02-02\"}]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        mockMvc.perform(post("/api/publishing-dates").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"date\":\"3200-02-01\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail").value("Duplicate data."));
+
+        mockMvc.perform(get("/api/publishing-dates").param("after", "3200-01-31").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].date").value("3200-02-01"))
+                .andExpect(jsonPath("$.nextKey").value("3200-02-01"));
+    }
+
+    /**
+     * Tests that bulk creation moves the books of each entry onto its date.
+     */
+    @Test
+    public void testBulkCreateWithBooks_assignsThemPerDate() throws Exception {
+        Book first = new Book("Bulk dated 1", "Fiction");
+        Book second = new Book("Bulk dated 2", "Poetry");
+        entityManager.persist(first);
+        entityManager.persist(second);
+        entityManager.flush();
+
+        mockMvc.perform(post("/api/publishing-dates/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"date\":\"3200-03-01\",\"bookIds\":[" + first.getId() + "]},"
+                                + "{\"date\":\"3200-03-02\"},"
+                                + "{\"date\":\"3200-03-03\",\"bookIds\":[" + second.getId() + "]}]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(3)));
+
+        mockMvc.perform(get("/api/publishing-dates").param("after", "3200-02-28").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].books[0].title").value("Bulk dated 1"))
+                .andExpect(jsonPath("$.items[1].books", hasSize(0)))
+                .andExpect(jsonPath("$.items[2].books[0].title").value("Bulk dated 2"));
+    }
+
+    /**
+     * Tests that integrity violations other than duplicates are reported as server errors.
+     */
+    @Test
+    public void testOtherIntegrityViolations_areServerErrors() {
+        ProblemDetail problem = new ApiExceptionHandler().handleDataIntegrityViolation(new DataIntegrityViolationException(
+                "Foreign key", new SQLException("Referential integrity constraint violation", "23506")));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.value(), problem.getStatus());
+    }
+
+    /**
+     * Tests that unknown dates return 404 and missing fields 400.
+     */
+    @Test
+    public void testInvalidRequests() throws Exception {
+        mockMvc.perform(get("/api/publishing-dates/-1"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/publishing-dates").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,331 @@
+package com.records.books.controllers;
+
+import com.records.books.dto.BookOption;
+import com.records.books.dto.KeysetPage;
+import com.records.books.dto.PublishingDateCatalogEntry;
+import com.records.books.entities.PublishingDate;
+import com.records.books.services.BookService;
+import com.records.books.services.CatalogVersion;
+import com.records.books.services.LocalCacheInvalidationChannel;
+import com.records.books.services.PublishingDateService;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PublishingDateController.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PublishingDateControllerTest {
+
+    @Mock
+    private PublishingDateService publishingDateService;
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private Model model;
+
+    @Mock
+    private BindingResult bindingResult;
+
+    @Mock
+    private RedirectAttributes redirectAttributes;
+
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion(new LocalCacheInvalidationChannel());
+
+    @InjectMocks
+    private PublishingDateController publishingDateController;
+
+    private ServletWebRequest webRequest;
+
+    @BeforeEach
+    public void setUp() {
+        reset(publishingDateService, bookService, model, bindingResult, redirectAttributes);
+        webRequest = new ServletWebRequest(new MockHttpServletRequest("GET", "/publishingDates"), new MockHttpServletResponse());
+    }
+
+    /**
+     * Tests listPublishingDates when not in edit mode.
+     */
+    @Test
+    public void testListPublishingDates_notInEditMode() {
+        List<PublishingDateCatalogEntry> publishingDates = new ArrayList<>();
+        when(publishingDateService.getPublishingDateCatalog(null, KeysetPage.DEFAULT_LIMIT)).thenReturn(new KeysetPage<>(publishingDates, null));
+
+        String viewName = publishingDateController.listPublishingDates(null, KeysetPage.DEFAULT_LIMIT, model, webRequest);
+
+        assertEquals("publishing-dates", viewName);
+        verify(model).addAttribute("publishingDates", publishingDates);
+        verify(model).addAttribute(eq("publishingDate"), any(PublishingDate.class));
+        verify(model).addAttribute("editingMode", false);
+    }
+
+    /**
+     * Tests that listPublishingDates answers a revalidation of an unchanged catalog without loading it.
+     */
+    @Test
+    public void testListPublishingDates_notModified() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/publishingDates");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, catalogVersion.getEtag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        String viewName = publishingDateController.listPublishingDates(null, KeysetPage.DEFAULT_LIMIT, model,
+                new ServletWebRequest(request, response));
+
+        assertNull(viewName);
+        assertEquals(304, response.getStatus());
+        verifyNoInteractions(publishingDateService);
+    }
+
+    /**
+     * Tests showEditPublishingDateForm when the publishing date is found.
+     */
+    @Test
+    public void testShowEditPublishingDateForm_success() {
+        Long id = 1L;
+        PublishingDate publishingDate = new PublishingDate();
+        publishingDate.setId(id);
+        publishingDate.setDate(LocalDate.of(2005, 5, 5));
+        List<PublishingDateCatalogEntry> publishingDates = new ArrayList<>();
+        when(publishingDateService.getPublishingDateForUpdate(id)).thenReturn(Optional.of(publishingDate));
+        when(publishingDateService.getPublishingDateCatalog(null, KeysetPage.DEFAULT_LIMIT)).thenReturn(new KeysetPage<>(publishingDates, null));
+
+        String viewName = publishingDateController.showEditPublishingDateForm(id, model, webRequest, redirectAttributes);
+
+        assertEquals("publishing-dates", viewName);
+        verify(model).addAttribute("publishingDates", publishingDates);
+        verify(model).addAttribute("publishingDate", publishingDate);
+        verify(model).addAttribute("editingMode", true);
+    }
+
+    /**
+     * Tests showEditPublishingDateForm when the publishing date is not found.
+     */
+    @Test
+    public void testShowEditPublishingDateForm_notFound() {
+        Long id = 1L;
+        when(publishingDateService.getPublishingDateForUpdate(id)).thenReturn(Optional.empty());
+
+        String viewName = publishingDateController.showEditPublishingDateForm(id, model, webRequest, redirectAttributes);
+
+        assertEquals("redirect:/publishingDates", viewName);
+        verify(redirectAttributes).addFlashAttribute("error", "Invalid publishing date ID: " + id);
+    }
+
+    /**
+     * Tests addPublishingDate with valid input.
+     */
+    @Test
+    public void testAddPublishingDate_success() {
+        PublishingDate publishingDate = new PublishingDate();
+        publishingDate.setDate(LocalDate.of(2023, 1, 1));
+        List<Long> bookIds = List.of(1L, 2L);
+
+        when(bindingResult.hasErrors()).thenReturn(false);
+
+        String viewName = publishingDateController.addPublishingDate(publishingDate, bindingResult, bookIds, model, redirectAttributes);
+
+        assertEquals("redirect:/publishingDates", viewName);
+        verify(publishingDateService).savePublishingDate(publishingDate, bookIds);
+        verify(redirectAttributes).addFlashAttribute("message", "Publishing date added successfully!");
+    }
+
+    /**
+     * Tests addPublishingDate with validation errors.
+     */
+    @Test
+    public void testAddPublishingDate_validationErrors() {
+        PublishingDate publishingDate = new PublishingDate();
+        List<PublishingDateCatalogEntry> publishingDates = new ArrayList<>();
+        when(bindingResult.hasErrors()).thenReturn(true);
+        when(publishingDateService.getPublishingDateCatalog(null, KeysetPage.DEFAULT_LIMIT)).thenReturn(new KeysetPage<>(publishingDates, null));
+
+        String viewName = publishingDateController.addPublishingDate(publishingDate, bindingResult, null, model, redirectAttributes);
+
+        assertEquals("publishing-dates", viewName);
+        verify(model).addAttribute("publishingDates", publishingDates);
+        verify(model).addAttribute("publishingDate", publishingDate);
+        verify(model).addAttribute("editingMode", false);
+        verify(model).addAttribute(eq("error"), anyString());
+    }
+
+    /**
+     * Tests addPublishingDate when the date already exists.
+     */
+    @Test
+    public void testAddPublishingDate_duplicateDate() {
+        PublishingDate publishingDate = new PublishingDate();
+        List<Long> bookIds = List.of(1L);
+
+        when(bindingResult.hasErrors()).thenReturn(false);
+        when(publishingDateService.getPublishingDateCatalog(null, KeysetPage.DEFAULT_LIMIT)).thenReturn(new KeysetPage<>(new ArrayList<>(), null));
+        doThrow(new DataIntegrityViolationException("Duplicate date", new ConstraintViolationException("Duplicate date",
+                new SQLException("Unique index or primary key violation", "23505"),
+                ConstraintViolationException.ConstraintKind.UNIQUE, "uk_publishing_dates_date")))
+                .when(publishingDateService).savePublishingDate(any(), any());
+
+        String viewName = publishingDateController.addPublishingDate(publishingDate, bindingResult, bookIds, model, redirectAttributes);
+
+        assertEquals("publishing-dates", viewName);
+        verify(model).addAttribute("error", "Error: Duplicate date.");
+        verify(model).addAttribute("editingMode", false);
+    }
+
+    /**
+     * Tests that the books picked for a date that fails to save are selected again on the re-rendered form.
+     */
+    @Test
+    public void testUpdatePublishingDate_duplicateDate_keepsSelectedBooks() {
+        PublishingDate publishingDate = new PublishingDate(LocalDate.of(2023, 1, 1));
+        publishingDate.setId(1L);
+        List<Long> bookIds = List.of(1L, 2L);
+        List<BookOption> books = List.of(new BookOption(1L, "First"), new BookOption(2L, "Second"));
+
+        when(bindingResult.hasErrors()).thenReturn(false);
+        when(publishingDateService.getPublishingDateCatalog(null, KeysetPage.DEFAULT_LIMIT)).thenReturn(new KeysetPage<>(new ArrayList<>(), null));
+        when(bookService.getBookOptions(bookIds)).thenReturn(books);
+        doThrow(new DataIntegrityViolationException("Duplicate date", new SQLException("Duplicate entry", "23000", 1062)))
+                .when(publishingDateService).updatePublishingDate(publishingDate, bookIds);
+
+        String viewName = publishingDateController.updatePublishingDate(publishingDate, bindingResult, bookIds, model, redirectAttributes);
+
+        assertEquals("publishing-dates", viewName);
+        verify(model).addAttribute("publishingDate", publishingDate);
+        verify(model).addAttribute("error", "Error: Duplicate date.");
+        verify(model).addAttribute("selectedBooks", books);
+    }
+
+    /**
+     * Tests that integrity violations other than a duplicate date are not reported as one.
+     */
+    @Test
+    public void testAddPublishingDate_otherIntegrityViolation() {
+        when(bindingResult.hasErrors()).thenReturn(false);
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("Foreign key",
+                new SQLException("Referential integrity constraint violation", "23506"));
+        doThrow(violation).when(publishingDateService).savePublishingDate(any(), any());
+
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class, () ->
+                publishingDateController.addPublishingDate(new PublishingDate(), bindingResult, List.of(1L), model, redirectAttributes)));
+        verify(model, never()).addAttribute(eq("error"), anyString());
+    }
+
+    /**
+     * Tests updatePublishingDate with valid input.
+     */
+    @Test
+    public void testUpdatePublishingDate_success() {
+        PublishingDate publishingDate = new PublishingDate();
+        publishingDate.setId(1L);
+        publishingDate.setDate(LocalDate.of(2023, 1, 1));
+        List<Long> bookIds = List.of(1L, 2L);
+
+        when(bindingResult.hasErrors()).thenReturn(false);
+
+        String viewName = publishingDateController.updatePublishingDate(publishingDate, bindingResult, bookIds, model, redirectAttributes);
+
+        assertEquals("redirect:/publishingDates", viewName);
+        verify(publishingDateService).updatePublishingDate(publishingDate, bookIds);
+        verify(redirectAttributes).addFlashAttribute("message", "Publishing date updated successfully!");
+    }
+
+    /**
+     * Tests that a stale version sends the editor back to the current version of the date.
+     */
+    @Test
+    public void testUpdatePublishingDate_staleVersion() {
+        PublishingDate publishingDate = new PublishingDate(LocalDate.of(2023, 1, 1));
+        publishingDate.setId(1L);
+        when(bindingResult.hasErrors()).thenReturn(false);
+        doThrow(new ObjectOptimisticLockingFailureException(PublishingDate.class, 1L))
+                .when(publishingDateService).updatePublishingDate(publishingDate, List.of());
+
+        String viewName = publishingDateController.updatePublishingDate(publishingDate, bindingResult, null, model, redirectAttributes);
+
+        assertEquals("redirect:/publishingDates/edit/1", viewName);
+        verify(redirectAttributes).addFlashAttribute("error",
+                "This publishing date was changed by someone else. Review the current version and try again.");
+    }
+
+    /**
+     * Tests updatePublishingDate with null ID.
+     */
+    @Test
+    public void testUpdatePublishingDate_nullId() {
+        PublishingDate publishingDate = new PublishingDate();
+        List<PublishingDateCatalogEntry> publishingDates = new ArrayList<>();
+        when(bindingResult.hasErrors()).thenReturn(false);
+        when(publishingDateService.getPublishingDateCatalog(null, KeysetPage.DEFAULT_LIMIT)).thenReturn(new KeysetPage<>(publishingDates, null));
+
+        String viewName = publishingDateController.updatePublishingDate(publishingDate, bindingResult, null, model, redirectAttributes);
+
+        assertEquals("publishing-dates", viewName);
+        verify(model).addAttribute("publishingDates", publishingDates);
+        verify(model).addAttribute("publishingDate", publishingDate);
+        verify(model).addAttribute("editingMode", true);
+        verify(model).addAttribute("error", "Publishing date ID cannot be null.");
+    }
+
+    /**
+     * Tests searchPublishingDateByDate when the publishing date is found.
+     */
+    @Test
+    public void testSearchPublishingDateByDate_success() {
+        LocalDate date = LocalDate.of(2023, 1, 1);
+        PublishingDate publishingDate = new PublishingDate();
+        publishingDate.setId(1L);
+        publishingDate.setDate(date);
+        List<PublishingDateCatalogEntry> publishingDates = new ArrayList<>();
+        when(publishingDateService.findByDate(date)).thenReturn(Optional.of(publishingDate));
+        when(publishingDateService.getPublishingDateCatalog(null, KeysetPage.DEFAULT_LIMIT)).thenReturn(new KeysetPage<>(publishingDates, null));
+
+        String viewName = publishingDateController.searchPublishingDateByDate(date, model, redirectAttributes);
+
+        assertEquals("publishing-dates", viewName);
+        verify(model).addAttribute("publishingDates", publishingDates);
+        verify(model).addAttribute("publishingDate", publishingDate);
+        verify(model).addAttribute("editingMode", true);
+    }
+
+    /**
+     * Tests searchPublishingDateByDate when the publishing date is not found.
+     */
+    @Test
+    public void testSearchPublishingDateByDate_notFound() {
+        LocalDate date = LocalDate.of(2023, 1, 1);
+        when(publishingDateService.findByDate(date)).thenReturn(Optional.empty());
+
+        String viewName = publishingDateController.searchPublishingDateByDate(date, model, redirectAttributes);
+
+        assertEquals("redirect:/publishingDates", viewName);
+        verify(redirectAttributes).addFlashAttribute("error", "No publishing date found for " + date);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.records.books.controllers;
+
+import com.records.books.config.CookieFlashMapManager;
+import com.records.books.entities.PublishingDate;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that the web pages never create an HTTP session, so requests can go to any instance.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class StatelessWebTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Tests that no read path creates a session, including the edit form.
+     */
+    @Test
+    public void testReadPaths_createNoSession() throws Exception {
+        PublishingDate publishingDate = new PublishingDate(LocalDate.of(3300, 1, 1));
+        entityManager.persist(publishingDate);
+        entityManager.flush();
+
+        for (String url : List.of("/books", "/books/books-by-date?date=3300-01-01", "/books/picker?q=a",
+                "/publishingDates", "/publishingDates/edit/" + publishingDate.getId(),
+                "/publishingDates/search?date=3300-01-01", "/publishingDates/search?date=3300-01-02")) {
+            MvcResult result = mockMvc.perform(get(url)).andReturn();
+            assertNull(result.getRequest().getSession(false), url);
+        }
+    }
+
+    /**
+     * Tests that the edit form is served from the URL alone, so a refresh keeps it open.
+     */
+    @Test
+    public void testEditForm_stateLivesInUrl() throws Exception {
+        PublishingDate publishingDate = new PublishingDate(LocalDate.of(3300, 2, 1));
+        entityManager.persist(publishingDate);
+        entityManager.flush();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/publishingDates/edit/" + publishingDate.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(model().attribute("editingMode", true))
+                    .andExpect(model().attribute("publishingDate", publishingDate));
+        }
+        mockMvc.perform(get("/publishingDates"))
+                .andExpect(model().attribute("editingMode", false));
+    }
+
+    /**
+     * Tests that a flash message survives the redirect in a signed cookie instead of a session.
+     */
+    @Test
+    public void testFlashMessage_travelsInCookie() throws Exception {
+        MvcResult saved = mockMvc.perform(post("/publishingDates/add").param("date", "3300-03-01"))
+                .andExpect(redirectedUrl("/publishingDates"))
+                .andReturn();
+        assertNull(saved.getRequest().getSession(false));
+        Cookie flash = saved.getResponse().getCookie(CookieFlashMapManager.COOKIE_NAME);
+        assertNotNull(flash);
+
+        MvcResult shown = mockMvc.perform(get("/publishingDates").cookie(flash))
+                .andExpect(model().attribute("message", "Publishing date added successfully!"))
+                .andReturn();
+        assertNull(shown.getRequest().getSession(false));
+        assertEquals(0, shown.getResponse().getCookie(CookieFlashMapManager.COOKIE_NAME).getMaxAge());
+    }
+
+    /**
+     * Tests that a flash cookie with a forged payload is ignored.
+     */
+    @Test
+    public void testFlashMessage_tamperedCookieIsIgnored() throws Exception {
+        Cookie flash = mockMvc.perform(get("/publishingDates/edit/-1"))
+                .andExpect(redirectedUrl("/publishingDates"))
+                .andReturn().getResponse().getCookie(CookieFlashMapManager.COOKIE_NAME);
+        String value = flash.getValue();
+        Cookie forged = new Cookie(CookieFlashMapManager.COOKIE_NAME, "W10" + value.substring(value.indexOf('.')));
+
+        mockMvc.perform(get("/publishingDates").cookie(forged))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeDoesNotExist("error"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.records.books.controllers;
+
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import com.records.books.services.BookService;
+import com.records.books.services.PublishingDateService;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Verifies that, without open-session-in-view, the pages hand their views everything they render.
+ * MockMvc does not render JSPs, so the tests check that the model needs no lazy loading.
+ * Not transactional: a test transaction would keep a session open across the request.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ViewFetchPlanTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private PublishingDateService publishingDateService;
+
+    @Autowired
+    private BookService bookService;
+
+    /**
+     * Tests that no session is kept open for view rendering.
+     */
+    @Test
+    public void testOpenInView_isDisabled() {
+        assertEquals(0, applicationContext.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class).length);
+    }
+
+    /**
+     * Tests that the edit form and the search result carry the date's books already loaded.
+     */
+    @Test
+    public void testPublishingDateForms_loadBooksBeforeRendering() throws Exception {
+        LocalDate date = LocalDate.of(3600, 1, 1);
+        PublishingDate publishingDate = new PublishingDate(date);
+        publishingDateService.savePublishingDates(List.of(publishingDate));
+        for (int i = 0; i < 2; i++) {
+            Book book = new Book("Rendered " + i, "Genre");
+            book.setPublishingDate(publishingDate);
+            bookService.saveBook(book);
+        }
+
+        assertBooksLoaded(modelDate(get("/publishingDates/edit/" + publishingDate.getId())));
+        assertBooksLoaded(modelDate(get("/publishingDates/search").param("date", date.toString())));
+    }
+
+    private PublishingDate modelDate(RequestBuilder request) throws Exception {
+        return (PublishingDate) mockMvc.perform(request).andReturn().getModelAndView().getModel().get("publishingDate");
+    }
+
+    private void assertBooksLoaded(PublishingDate publishingDate) {
+        assertTrue(Hibernate.isInitialized(publishingDate.getBooks()));
+        assertEquals(List.of("Rendered 0", "Rendered 1"),
+                publishingDate.getBooks().stream().map(Book::getTitle).sorted().toList());
+    }
+}
@@ -0,0 +1,105 @@
+package com.records.books.repositories;
+
+import com.records.books.dto.BookOption;
+import com.records.books.dto.BookSummary;
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for BookRepository against the embedded database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class BookRepositoryTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Tests that saveAll assigns ids from the pooled sequence and sends inserts in JDBC batches.
+     */
+    @Test
+    public void testSaveAll_batchesInserts() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            books.add(new Book("Batched " + i, "Genre"));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        bookRepository.saveAll(books);
+        entityManager.flush();
+
+        // 200 inserts in batches of 50, plus one sequence round trip per 50 ids
+        assertTrue(statistics.getPrepareStatementCount() <= 10,
+                "Expected batched inserts but got " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    /**
+     * Tests that the books of a date are loaded as projections in a single statement, without managed entities.
+     */
+    @Test
+    public void testFindBooksByPublishingDate_singleProjectionQuery() {
+        PublishingDate publishingDate = new PublishingDate(LocalDate.of(2700, 1, 1));
+        entityManager.persist(publishingDate);
+        for (int i = 0; i < 3; i++) {
+            Book book = new Book("Dated " + i, "Genre");
+            book.setPublishingDate(publishingDate);
+            entityManager.persist(book);
+        }
+        entityManager.persist(new Book("Undated", "Genre"));
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookSummary> books = bookRepository.findBooksByPublishingDate(LocalDate.of(2700, 1, 1));
+
+        assertEquals(List.of("Dated 0", "Dated 1", "Dated 2"), books.stream().map(BookSummary::getTitle).toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    /**
+     * Tests that picker options are read by id as projections, in title order, skipping unknown ids.
+     */
+    @Test
+    public void testFindOptionsByIdIn_readsProjections() {
+        Book second = new Book("Option B", "Genre");
+        Book first = new Book("Option A", "Genre");
+        entityManager.persist(second);
+        entityManager.persist(first);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookOption> options = bookRepository.findOptionsByIdIn(List.of(second.getId(), first.getId(), -1L));
+
+        assertEquals(List.of(first.getId(), second.getId()), options.stream().map(BookOption::getId).toList());
+        assertEquals(List.of("Option A", "Option B"), options.stream().map(BookOption::getTitle).toList());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,69 @@
+package com.records.books.services;
+
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for BookExportService against the embedded database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class BookExportServiceTest {
+
+    @Autowired
+    private BookExportService bookExportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Tests that the CSV export writes a header and one escaped line per book.
+     */
+    @Test
+    public void testExportBooks_csv() throws Exception {
+        PublishingDate publishingDate = new PublishingDate(LocalDate.of(2700, 1, 1));
+        entityManager.persist(publishingDate);
+        Book book = new Book("Exported, \"Quoted\"", "Fiction");
+        book.setPublishingDate(publishingDate);
+        entityManager.persist(book);
+        entityManager.flush();
+
+        StringWriter writer = new StringWriter();
+        long rows = bookExportService.exportBooks(CatalogFormat.CSV, writer);
+
+        List<String> lines = writer.toString().lines().toList();
+        assertEquals("id,title,genre,publishingDate", lines.get(0));
+        assertEquals(rows + 1, lines.size());
+        assertTrue(lines.contains(book.getId() + ",\"Exported, \"\"Quoted\"\"\",Fiction,2700-01-01"));
+    }
+
+    /**
+     * Tests that the NDJSON export writes one JSON object per line.
+     */
+    @Test
+    public void testExportBooks_ndjson() throws Exception {
+        Book book = new Book("Exported Json", "Poetry");
+        entityManager.persist(book);
+        entityManager.flush();
+
+        StringWriter writer = new StringWriter();
+        long rows = bookExportService.exportBooks(CatalogFormat.NDJSON, writer);
+
+        List<String> lines = writer.toString().lines().toList();
+        assertEquals(rows, lines.size());
+        assertTrue(lines.contains("{\"id\":" + book.getId() + ",\"title\":\"Exported Json\",\"genre\":\"Poetry\",\"publishingDate\":null}"));
+    }
+}
@@ -0,0 +1,211 @@
+package com.records.books.services;
+
+import com.records.books.dto.BookSummary;
+import com.records.books.dto.ImportReport;
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import com.records.books.repositories.BookRepository;
+import com.records.books.repositories.PublishingDateRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Integration tests for BookImportService against the embedded database.
+ */
+@SpringBootTest(properties = "books.import.chunk-size=2")
+@ActiveProfiles("test")
+@Transactional
+public class BookImportServiceTest {
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PublishingDateRepository publishingDateRepository;
+
+    @Autowired
+    private BookExportService bookExportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoSpyBean
+    private BookSearchIndex bookSearchIndex;
+
+    /**
+     * Tests a CSV import that creates missing dates, reuses existing ones and rejects invalid rows.
+     */
+    @Test
+    public void testImportBooks_csv() throws Exception {
+        String csv = """
+                title,genre,publishingDate
+                Imported One,Fiction,2600-01-01
+                "Imported, Two","Non ""Fiction""\",2600-01-01
+                ,Fiction,2600-01-02
+                Imported Three,Poetry,not-a-date
+                Imported Four,Poetry,2600-01-02
+                Imported Five,Poetry
+                """;
+
+        ImportReport report = bookImportService.importBooks(new StringReader(csv), CatalogFormat.CSV);
+
+        assertEquals(6, report.getRowsRead());
+        assertEquals(4, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertEquals(2, report.getPublishingDatesCreated());
+        assertEquals(2, report.getErrors().size());
+        assertTrue(report.getErrors().get(0).startsWith("Line 4:"));
+
+        List<BookSummary> books = bookRepository.findBooksByPublishingDate(LocalDate.of(2600, 1, 1));
+        assertEquals(2, books.size());
+        assertTrue(books.stream().anyMatch(book -> book.getTitle().equals("Imported, Two")
+                && book.getGenre().equals("Non \"Fiction\"")));
+    }
+
+    /**
+     * Tests an NDJSON import against a publishing date that already exists.
+     */
+    @Test
+    public void testImportBooks_ndjson() throws Exception {
+        publishingDateRepository.save(new PublishingDate(LocalDate.of(2600, 2, 1)));
+        String ndjson = """
+                {"title":"Json One","genre":"Fiction","publishingDate":"2600-02-01"}
+                {"title":"Json Two","genre":"Fiction"}
+                {"title":
+                """;
+
+        ImportReport report = bookImportService.importBooks(new StringReader(ndjson), CatalogFormat.NDJSON);
+
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals(0, report.getPublishingDatesCreated());
+        assertEquals(1, bookRepository.findBooksByPublishingDate(LocalDate.of(2600, 2, 1)).size());
+    }
+
+    /**
+     * Tests that only a line naming the columns is taken as a header, so a first title starting with
+     * "Title" is imported.
+     */
+    @Test
+    public void testImportBooks_csvWithoutHeader() throws Exception {
+        String csv = """
+                Title Deeds,Law,2600-03-01
+                Titles and Honours,History,2600-03-01
+                """;
+
+        ImportReport report = bookImportService.importBooks(new StringReader(csv), CatalogFormat.CSV);
+
+        assertEquals(2, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        assertEquals(2, bookRepository.findBooksByPublishingDate(LocalDate.of(2600, 3, 1)).size());
+    }
+
+    /**
+     * Tests that a CSV export can be imported again, with its id column ignored.
+     */
+    @Test
+    public void testImportBooks_csvExportLayout() throws Exception {
+        String csv = """
+                id,title,genre,publishingDate
+                41,Exported One,Fiction,2600-04-01
+                42,"Exported, Two",,2600-04-01
+                43,Exported Three,Poetry
+                """;
+
+        ImportReport report = bookImportService.importBooks(new StringReader(csv), CatalogFormat.CSV);
+
+        assertEquals(3, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        assertTrue(report.getErrors().get(0).startsWith("Line 4:"));
+        List<BookSummary> books = bookRepository.findBooksByPublishingDate(LocalDate.of(2600, 4, 1));
+        assertEquals(2, books.size());
+        assertTrue(books.stream().anyMatch(book -> book.getTitle().equals("Exported, Two") && book.getGenre() == null));
+    }
+
+    /**
+     * Tests that a title with line breaks survives a CSV export and a re-import.
+     */
+    @Test
+    public void testImportBooks_csvExportWithLineBreaks() throws Exception {
+        LocalDate date = TestDates.next();
+        PublishingDate publishingDate = new PublishingDate(date);
+        entityManager.persist(publishingDate);
+        Book book = new Book("First line\nSecond, \"quoted\" line", "Fiction");
+        book.setPublishingDate(publishingDate);
+        entityManager.persist(book);
+        entityManager.flush();
+        StringWriter writer = new StringWriter();
+        bookExportService.exportBooks(CatalogFormat.CSV, writer);
+        // The header and the exported record of the book, which spans two lines.
+        String export = writer.toString();
+        String recordEnd = ",Fiction," + date + "\n";
+        int start = export.indexOf("\n" + book.getId() + ",") + 1;
+        String csv = export.substring(0, export.indexOf('\n') + 1)
+                + export.substring(start, export.indexOf(recordEnd, start) + recordEnd.length());
+
+        ImportReport report = bookImportService.importBooks(new StringReader(csv + "0,Next line,Fiction," + date), CatalogFormat.CSV);
+
+        assertEquals(2, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        List<BookSummary> books = bookRepository.findBooksByPublishingDate(date);
+        assertEquals(3, books.size());
+        assertEquals(2, books.stream().filter(imported -> imported.getTitle().equals(book.getTitle())).count());
+    }
+
+    /**
+     * Tests that a chunk that fails to write is retried row by row, so only the failing row is rejected.
+     * Runs outside the test transaction because the failed chunk must roll back on its own.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testImportBooks_failedChunkIsRetriedRowByRow() throws Exception {
+        doAnswer(invocation -> {
+            Collection<Book> books = invocation.getArgument(0);
+            if (books.stream().anyMatch(book -> book.getTitle().equals("Rejected by database"))) {
+                throw new DataIntegrityViolationException("Rejected by database");
+            }
+            return invocation.callRealMethod();
+        }).when(bookSearchIndex).index(anyCollection());
+        LocalDate date = TestDates.next();
+        String csv = "Kept One,Fiction," + date + "\nRejected by database,Fiction," + date + "\nKept Two,Fiction," + date;
+
+        ImportReport report = bookImportService.importBooks(new StringReader(csv), CatalogFormat.CSV);
+
+        assertEquals(3, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertTrue(report.getErrors().get(0).startsWith("Line 2:"));
+        assertEquals(List.of("Kept One", "Kept Two"), bookRepository.findBooksByPublishingDate(date).stream()
+                .map(BookSummary::getTitle).sorted().toList());
+    }
+
+    /**
+     * Tests the CSV field splitter with quoted separators and unterminated quotes.
+     */
+    @Test
+    public void testSplitCsvLine() {
+        assertEquals(List.of("a", "b,c", "d\"e", ""), BookImportService.splitCsvLine("a,\"b,c\",\"d\"\"e\","));
+        assertThrows(IllegalArgumentException.class, () -> BookImportService.splitCsvLine("a,\"b"));
+    }
+}
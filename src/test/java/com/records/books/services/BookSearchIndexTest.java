@@ -0,0 +1,134 @@
+package com.records.books.services;
+
+import com.records.books.dto.BookSearchHit;
+import com.records.books.dto.BookSearchResults;
+import com.records.books.entities.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that the search index follows committed book writes and returns ranked, paged results.
+ * Not transactional: index updates are applied after commit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookSearchIndexTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Tests that saved and renamed books are searchable right after the write.
+     */
+    @Test
+    public void testSearch_followsSaveAndTitleUpdate() {
+        Book book = new Book("The Quasar Gardener", "Botany");
+        bookService.saveBook(book);
+        bookSearchIndex.refresh();
+
+        assertEquals(List.of(book.getId()), ids(bookService.searchBooks("quasar", 0, 10)));
+
+        bookService.updateBookTitle(book.getId(), "The Pulsar Gardener");
+        bookSearchIndex.refresh();
+
+        assertTrue(bookService.searchBooks("quasar", 0, 10).getHits().isEmpty());
+        assertEquals(List.of(book.getId()), ids(bookService.searchBooks("pulsar gardener", 0, 10)));
+    }
+
+    /**
+     * Tests that title matches rank above genre matches and that all terms must match.
+     */
+    @Test
+    public void testSearch_ranksTitleAboveGenre() {
+        Book inGenre = new Book("Collected Essays", "Zephyrology");
+        Book inTitle = new Book("Zephyrology Explained", "Science");
+        bookService.saveBook(inGenre);
+        bookService.saveBook(inTitle);
+        bookSearchIndex.refresh();
+
+        assertEquals(List.of(inTitle.getId(), inGenre.getId()), ids(bookService.searchBooks("zephyrology", 0, 10)));
+        assertEquals(List.of(inTitle.getId()), ids(bookService.searchBooks("zephyrology explained", 0, 10)));
+        assertEquals(List.of(inTitle.getId()), ids(bookService.searchBooks("zephyr*  -essays", 0, 10)));
+    }
+
+    /**
+     * Tests offset paging over ranked results and the result window.
+     */
+    @Test
+    public void testSearch_pagesThroughResults() {
+        for (int i = 0; i < 7; i++) {
+            bookService.saveBook(new Book("Nebulith volume " + i, "Saga"));
+        }
+        bookSearchIndex.refresh();
+
+        List<Long> seen = new ArrayList<>();
+        BookSearchResults page = bookService.searchBooks("nebulith", 0, 3);
+        assertEquals(7, page.getTotalHits());
+        while (true) {
+            seen.addAll(ids(page));
+            if (!page.isHasNext()) {
+                break;
+            }
+            page = bookService.searchBooks("nebulith", page.getNextOffset(), 3);
+        }
+
+        assertEquals(7, seen.stream().distinct().count());
+        assertNull(page.getNextOffset());
+        assertThrows(IllegalArgumentException.class,
+                () -> bookService.searchBooks("nebulith", BookSearchIndex.MAX_RESULT_WINDOW, 10));
+    }
+
+    /**
+     * Tests that titles made only of stop words are found by their whole title, and rank first for it.
+     */
+    @Test
+    public void testSearch_findsStopWordTitles() {
+        Book it = new Book("It", "Horror");
+        Book theThe = new Book("The  The", "Music");
+        Book containsIt = new Book("It Happened Tomorrow It", "Comedy");
+        bookService.saveBook(it);
+        bookService.saveBook(theThe);
+        bookService.saveBook(containsIt);
+        bookSearchIndex.refresh();
+
+        assertEquals(List.of(it.getId()), ids(bookService.searchBooks("it", 0, 10)));
+        assertEquals(List.of(theThe.getId()), ids(bookService.searchBooks("The the", 0, 10)));
+        assertEquals(containsIt.getId(), ids(bookService.searchBooks("It happened tomorrow it", 0, 10)).get(0));
+    }
+
+    /**
+     * Tests that a rolled back write never reaches the index.
+     */
+    @Test
+    public void testSearch_ignoresRolledBackWrites() {
+        transactionTemplate.executeWithoutResult(status -> {
+            bookService.saveBook(new Book("Rolled back Vortexium", "Genre"));
+            status.setRollbackOnly();
+        });
+        bookSearchIndex.refresh();
+
+        assertFalse(bookService.searchBooks("vortexium", 0, 10).isHasNext());
+        assertTrue(bookService.searchBooks("vortexium", 0, 10).getHits().isEmpty());
+    }
+
+    private static List<Long> ids(BookSearchResults results) {
+        return results.getHits().stream().map(BookSearchHit::getId).toList();
+    }
+}
@@ -0,0 +1,115 @@
+package com.records.books.services;
+
+import com.records.books.dto.BookListItem;
+import com.records.books.dto.BookOption;
+import com.records.books.dto.KeysetPage;
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for BookService against the embedded database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class BookServiceTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Tests that the book picker pages through prefix matches in title order.
+     */
+    @Test
+    public void testFindBookOptions_pagesThroughPrefixMatches() {
+        for (int i = 0; i < 12; i++) {
+            entityManager.persist(new Book(String.format("Picker %02d", i), "Genre"));
+        }
+        entityManager.persist(new Book("Other title", "Genre"));
+        entityManager.flush();
+
+        List<String> titles = new ArrayList<>();
+        KeysetPage<BookOption, BookOption> page = bookService.findBookOptions("Picker", null, null, 5);
+        while (true) {
+            page.getItems().forEach(option -> titles.add(option.getTitle()));
+            if (!page.isHasNext()) {
+                break;
+            }
+            BookOption last = page.getNextKey();
+            page = bookService.findBookOptions("Picker", last.getTitle(), last.getId(), 5);
+        }
+
+        assertEquals(12, titles.size());
+        assertEquals("Picker 00", titles.get(0));
+        assertEquals("Picker 11", titles.get(11));
+        assertNull(page.getNextKey());
+    }
+
+    /**
+     * Tests that LIKE wildcards typed by the user are matched literally.
+     */
+    @Test
+    public void testFindBookOptions_escapesWildcards() {
+        entityManager.persist(new Book("100% Wild", "Genre"));
+        entityManager.persist(new Book("100 Wild", "Genre"));
+        entityManager.flush();
+
+        List<BookOption> options = bookService.findBookOptions("100%", null, null, 10).getItems();
+
+        assertEquals(1, options.size());
+        assertEquals("100% Wild", options.get(0).getTitle());
+        assertFalse(bookService.findBookOptions("100_", null, null, 10).isHasNext());
+        assertTrue(bookService.findBookOptions("100_", null, null, 10).getItems().isEmpty());
+    }
+
+    /**
+     * Tests that the range listing pages through the books of the range in date and id order.
+     */
+    @Test
+    public void testGetBooksInRange_pagesThroughRange() {
+        for (int day = 0; day < 5; day++) {
+            PublishingDate publishingDate = new PublishingDate(LocalDate.of(2900, 1, 1).plusDays(day));
+            entityManager.persist(publishingDate);
+            for (int i = 0; i < 3; i++) {
+                Book book = new Book("Ranged " + day + "-" + i, "Genre");
+                book.setPublishingDate(publishingDate);
+                entityManager.persist(book);
+            }
+        }
+        entityManager.flush();
+
+        LocalDate from = LocalDate.of(2900, 1, 2);
+        LocalDate to = LocalDate.of(2900, 1, 4);
+        List<String> titles = new ArrayList<>();
+        KeysetPage<BookListItem, BookListItem> page = bookService.getBooksInRange(from, to, null, null, 4);
+        while (true) {
+            page.getItems().forEach(book -> titles.add(book.getTitle()));
+            if (!page.isHasNext()) {
+                break;
+            }
+            BookListItem last = page.getNextKey();
+            page = bookService.getBooksInRange(from, to, last.getPublishingDate(), last.getId(), 4);
+        }
+
+        assertEquals(9, titles.size());
+        assertEquals("Ranged 1-0", titles.get(0));
+        assertEquals("Ranged 3-2", titles.get(8));
+    }
+}
@@ -0,0 +1,142 @@
+package com.records.books.services;
+
+import com.records.books.dto.BookCount;
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import com.records.books.repositories.BookRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifies the book count aggregates and that the rollup table stays equal to the GROUP BY
+ * queries across every write path.
+ */
+@SpringBootTest(properties = "books.rollup.enabled=true")
+@ActiveProfiles("test")
+@Transactional
+public class BookStatsServiceTest {
+    private static final LocalDate FROM = LocalDate.of(2800, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2801, 12, 31);
+
+    @Autowired
+    private BookStatsService bookStatsService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private PublishingDateService publishingDateService;
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Tests the counts per bucket for books added through the service.
+     */
+    @Test
+    public void testCountBooks_groupsByBucket() {
+        PublishingDate january = saveDate(LocalDate.of(2800, 1, 5));
+        PublishingDate march = saveDate(LocalDate.of(2800, 3, 1));
+        PublishingDate nextYear = saveDate(LocalDate.of(2801, 3, 1));
+        saveBook("A", "Fiction", january);
+        saveBook("B", "Fiction", january);
+        saveBook("C", "Poetry", march);
+        saveBook("D", null, nextYear);
+
+        assertEquals(counts("2800-01-05", 2L, "2800-03-01", 1L, "2801-03-01", 1L),
+                asMap(bookStatsService.countBooks(BookCountBucket.DAY, FROM, TO)));
+        assertEquals(counts("2800-01", 2L, "2800-03", 1L, "2801-03", 1L),
+                asMap(bookStatsService.countBooks(BookCountBucket.MONTH, FROM, TO)));
+        assertEquals(counts("2800", 3L, "2801", 1L),
+                asMap(bookStatsService.countBooks(BookCountBucket.YEAR, FROM, TO)));
+        assertEquals(counts("Fiction", 2L, "Poetry", 1L, null, 1L),
+                asMap(bookStatsService.countBooks(BookCountBucket.GENRE, FROM, TO)));
+        assertEquals(1, bookStatsService.countBooks(BookCountBucket.YEAR, LocalDate.of(2801, 1, 1), null).size());
+    }
+
+    /**
+     * Tests that the rollup matches a GROUP BY over the books after moves, date changes and imports.
+     */
+    @Test
+    public void testRollup_matchesGroupByAfterWrites() throws Exception {
+        PublishingDate first = saveDate(LocalDate.of(2800, 5, 1));
+        PublishingDate second = saveDate(LocalDate.of(2800, 6, 1));
+        List<Long> bookIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            bookIds.add(saveBook("Rolled " + i, i % 2 == 0 ? "Fiction" : null, first).getId());
+        }
+
+        publishingDateService.assignBooks(second.getId(), bookIds.subList(0, 3));
+        PublishingDate moved = new PublishingDate(LocalDate.of(2801, 7, 1));
+        moved.setId(first.getId());
+        publishingDateService.updatePublishingDate(moved, bookIds.subList(3, 5));
+        bookImportService.importBooks(new StringReader("""
+                Imported A,Fiction,2800-06-01
+                Imported B,Fiction,2800-08-01
+                Imported C,,2800-08-01
+                """), CatalogFormat.CSV);
+        entityManager.flush();
+
+        assertEquals(asMap(bookRepository.countByDay(FROM, TO)),
+                asMap(bookStatsService.countBooks(BookCountBucket.DAY, FROM, TO)));
+        assertEquals(asMap(bookRepository.countByGenre(FROM, TO)),
+                asMap(bookStatsService.countBooks(BookCountBucket.GENRE, FROM, TO)));
+        assertEquals(counts("2800-06-01", 4L, "2800-08-01", 2L, "2801-07-01", 2L),
+                asMap(bookStatsService.countBooks(BookCountBucket.DAY, FROM, TO)));
+    }
+
+    /**
+     * Tests that an inverted range is rejected.
+     */
+    @Test
+    public void testCountBooks_rejectsInvertedRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> bookStatsService.countBooks(BookCountBucket.DAY, TO, FROM));
+    }
+
+    private PublishingDate saveDate(LocalDate date) {
+        PublishingDate publishingDate = new PublishingDate(date);
+        entityManager.persist(publishingDate);
+        return publishingDate;
+    }
+
+    private Book saveBook(String title, String genre, PublishingDate publishingDate) {
+        Book book = new Book(title, genre);
+        book.setPublishingDate(publishingDate);
+        bookService.saveBook(book);
+        return book;
+    }
+
+    private static Map<String, Long> asMap(List<BookCount> counts) {
+        return counts.stream().collect(Collectors.toMap(
+                count -> String.valueOf(count.getBucket()), BookCount::getCount, Long::sum, TreeMap::new));
+    }
+
+    private static Map<String, Long> counts(Object... bucketsAndCounts) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (int i = 0; i < bucketsAndCounts.length; i += 2) {
+            counts.put(String.valueOf(bucketsAndCounts[i]), (Long) bucketsAndCounts[i + 1]);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,210 @@
+package com.records.books.services;
+
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import com.records.books.repositories.BookRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies title updates in write-behind mode: coalescing, reads of pending titles, the size trigger,
+ * the bound on pending books and the final write on shutdown. The flush interval is long enough that
+ * only the size trigger and explicit flushes write. Not transactional: flushes commit their own transactions.
+ */
+@SpringBootTest(properties = {
+        "books.title-write-behind.enabled=true",
+        "books.title-write-behind.batch-size=3",
+        "books.title-write-behind.max-pending=5",
+        "books.title-write-behind.flush-interval=1h"
+})
+@ActiveProfiles("test")
+public class BookTitleWriteBehindTest {
+    @Autowired
+    private BookTitleWriteBehind bookTitleWriteBehind;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private PublishingDateService publishingDateService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Tests that repeated renames of a book are acknowledged without writing, read back with the last
+     * title, and written as a single update.
+     */
+    @Test
+    public void testRenames_coalesceIntoOneUpdate() {
+        PublishingDate date = createDate();
+        Book book = createBook("Draft", date);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long updatesBefore = statistics.getEntityUpdateCount();
+
+        for (int i = 1; i <= 10; i++) {
+            assertTrue(bookService.updateBookTitle(book.getId(), "Draft " + i));
+        }
+
+        assertEquals(updatesBefore, statistics.getEntityUpdateCount());
+        assertEquals("Draft", bookRepository.findById(book.getId()).orElseThrow().getTitle());
+        assertEquals("Draft 10", bookService.getBook(book.getId()).orElseThrow().getTitle());
+        assertEquals("Draft 10", publishingDateService.getBooksByPublishingDate(date.getDate()).get(0).getTitle());
+        assertEquals("Draft 10", publishingDateService.getPublishingDateEntry(date.getId()).orElseThrow()
+                .getBooks().get(0).getTitle());
+
+        assertEquals(1, bookTitleWriteBehind.flush());
+
+        assertEquals(updatesBefore + 1, statistics.getEntityUpdateCount());
+        assertEquals("Draft 10", bookRepository.findById(book.getId()).orElseThrow().getTitle());
+        assertEquals("Draft 10", publishingDateService.getBooksByPublishingDate(date.getDate()).get(0).getTitle());
+    }
+
+    /**
+     * Tests that renaming a missing book is refused and queues nothing.
+     */
+    @Test
+    public void testRenameOfMissingBook_isRefused() {
+        assertFalse(bookService.updateBookTitle(Long.MAX_VALUE, "Nothing"));
+        assertEquals(0, bookTitleWriteBehind.flush());
+    }
+
+    /**
+     * Tests that a title too long for the column is refused when it is queued.
+     */
+    @Test
+    public void testRenameWithTooLongTitle_isRefused() {
+        Book book = createBook("Short", createDate());
+
+        assertThrows(IllegalArgumentException.class, () -> bookService.updateBookTitle(book.getId(), "x".repeat(256)));
+        assertEquals(0, bookTitleWriteBehind.flush());
+    }
+
+    /**
+     * Tests that a title the database rejects is dropped on its own, and the other titles of its batch
+     * are still written.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRejectedTitle_isDroppedWithoutHoldingBackItsBatch() {
+        PublishingDate date = createDate();
+        Book first = createBook("Kept 1", date);
+        Book rejected = createBook("Rejected", date);
+        Book second = createBook("Kept 2", date);
+        bookService.updateBookTitle(first.getId(), "Kept 1, renamed");
+        bookService.updateBookTitle(second.getId(), "Kept 2, renamed");
+        // As if queued before titles were checked: the column holds 255 characters.
+        Map<Long, String> pending = (Map<Long, String>) ReflectionTestUtils.getField(bookTitleWriteBehind, "pending");
+        pending.put(rejected.getId(), "x".repeat(300));
+        double droppedBefore = meterRegistry.get("books.titles.dropped").counter().count();
+
+        assertEquals(2, bookTitleWriteBehind.flush());
+
+        assertEquals(0.0, pendingTitles());
+        assertEquals(droppedBefore + 1, meterRegistry.get("books.titles.dropped").counter().count());
+        assertEquals("Kept 1, renamed", bookRepository.findById(first.getId()).orElseThrow().getTitle());
+        assertEquals("Rejected", bookRepository.findById(rejected.getId()).orElseThrow().getTitle());
+        assertEquals("Kept 2, renamed", bookRepository.findById(second.getId()).orElseThrow().getTitle());
+    }
+
+    /**
+     * Tests that a full save of a book drops the title still pending for it.
+     */
+    @Test
+    public void testSave_supersedesPendingTitle() {
+        Book book = createBook("Saved", createDate());
+        bookService.updateBookTitle(book.getId(), "Queued");
+
+        Book copy = bookRepository.findById(book.getId()).orElseThrow();
+        copy.setGenre("Other genre");
+        bookService.saveBook(copy);
+
+        assertEquals("Saved", bookService.getBook(book.getId()).orElseThrow().getTitle());
+        assertEquals(0, bookTitleWriteBehind.flush());
+    }
+
+    /**
+     * Tests that the queue never holds more than max-pending books and that full batches are written
+     * without waiting for the flush interval.
+     */
+    @Test
+    public void testManyRenames_stayBoundedAndAreWrittenInBatches() throws InterruptedException {
+        PublishingDate date = createDate();
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            books.add(createBook("Batched " + i, date));
+        }
+
+        for (Book book : books) {
+            bookService.updateBookTitle(book.getId(), book.getTitle() + ", renamed");
+            assertTrue(pendingTitles() <= 5, "Pending titles: " + pendingTitles());
+        }
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pendingTitles() >= 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(pendingTitles() < 3, "Pending titles: " + pendingTitles());
+        bookTitleWriteBehind.flush();
+        for (Book book : books) {
+            assertEquals(book.getTitle() + ", renamed", bookRepository.findById(book.getId()).orElseThrow().getTitle());
+        }
+    }
+
+    /**
+     * Tests that titles still pending when the application shuts down are written.
+     */
+    @Test
+    @DirtiesContext
+    public void testShutdown_writesPendingTitles() throws InterruptedException {
+        Book first = createBook("Closing", createDate());
+        Book second = createBook("Closing", createDate());
+        bookService.updateBookTitle(first.getId(), "Closed 1");
+        bookService.updateBookTitle(second.getId(), "Closed 2");
+
+        bookTitleWriteBehind.close();
+
+        assertEquals(0.0, pendingTitles());
+        assertEquals("Closed 1", bookRepository.findById(first.getId()).orElseThrow().getTitle());
+        assertEquals("Closed 2", bookRepository.findById(second.getId()).orElseThrow().getTitle());
+    }
+
+    private double pendingTitles() {
+        return meterRegistry.get("books.titles.pending").gauge().value();
+    }
+
+    private Book createBook(String title, PublishingDate date) {
+        Book book = new Book(title, "Genre");
+        book.setPublishingDate(date);
+        bookService.saveBook(book);
+        return book;
+    }
+
+    private PublishingDate createDate() {
+        PublishingDate date = new PublishingDate(TestDates.next());
+        publishingDateService.savePublishingDates(List.of(date));
+        return date;
+    }
+}
@@ -0,0 +1,157 @@
+package com.records.books.services;
+
+import com.records.books.dto.BookSummary;
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import com.records.books.repositories.BookRepository;
+import com.records.books.repositories.PublishingDateRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that the books-by-date cache serves repeated reads and is evicted by every write path.
+ * Not transactional: evictions made inside a transaction are only applied on commit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class BooksByDateCacheTest {
+
+    @Autowired
+    private PublishingDateService publishingDateService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private PublishingDateRepository publishingDateRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Tests that a second read of the same date runs no statements and is counted as a hit.
+     */
+    @Test
+    public void testGetBooksByPublishingDate_repeatedReadIsServedFromCache() {
+        LocalDate date = LocalDate.of(2500, 1, 1);
+        PublishingDate publishingDate = publishingDateRepository.save(new PublishingDate(date));
+        saveBook("Cached", publishingDate);
+        double hitsBefore = cacheGets("hit");
+
+        publishingDateService.getBooksByPublishingDate(date);
+        statistics.clear();
+        List<BookSummary> books = publishingDateService.getBooksByPublishingDate(date);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(List.of("Cached"), books.stream().map(BookSummary::getTitle).toList());
+        assertEquals(hitsBefore + 1, cacheGets("hit"));
+    }
+
+    /**
+     * Tests that renaming a book evicts its date.
+     */
+    @Test
+    public void testUpdateBookTitle_evictsDate() {
+        LocalDate date = LocalDate.of(2500, 2, 1);
+        PublishingDate publishingDate = publishingDateRepository.save(new PublishingDate(date));
+        Book book = saveBook("Old title", publishingDate);
+        publishingDateService.getBooksByPublishingDate(date);
+
+        bookService.updateBookTitle(book.getId(), "New title");
+
+        assertEquals("New title", publishingDateService.getBooksByPublishingDate(date).get(0).getTitle());
+    }
+
+    /**
+     * Tests that adding a book to a date that was cached as empty evicts it.
+     */
+    @Test
+    public void testSaveBook_evictsDate() {
+        LocalDate date = LocalDate.of(2500, 3, 1);
+        PublishingDate publishingDate = publishingDateRepository.save(new PublishingDate(date));
+        assertTrue(publishingDateService.getBooksByPublishingDate(date).isEmpty());
+
+        Book book = new Book("Added", "Genre");
+        book.setPublishingDate(publishingDate);
+        bookService.saveBook(book);
+
+        assertEquals(1, publishingDateService.getBooksByPublishingDate(date).size());
+    }
+
+    /**
+     * Tests that moving books evicts both the date they left and the date they joined.
+     */
+    @Test
+    public void testUpdatePublishingDate_evictsPreviousAndNewDates() {
+        LocalDate source = LocalDate.of(2500, 4, 1);
+        LocalDate target = LocalDate.of(2500, 4, 2);
+        PublishingDate sourceDate = publishingDateRepository.save(new PublishingDate(source));
+        PublishingDate targetDate = publishingDateRepository.save(new PublishingDate(target));
+        Book book = saveBook("Moving", sourceDate);
+        publishingDateService.getBooksByPublishingDate(source);
+        publishingDateService.getBooksByPublishingDate(target);
+
+        publishingDateService.updatePublishingDate(targetDate, List.of(book.getId()));
+
+        assertTrue(publishingDateService.getBooksByPublishingDate(source).isEmpty());
+        assertEquals(1, publishingDateService.getBooksByPublishingDate(target).size());
+    }
+
+    /**
+     * Tests that changing the date itself evicts both the old and the new date.
+     */
+    @Test
+    public void testUpdatePublishingDate_changingTheDateEvictsBothKeys() {
+        LocalDate before = LocalDate.of(2500, 5, 1);
+        LocalDate after = LocalDate.of(2500, 5, 2);
+        PublishingDate publishingDate = publishingDateRepository.save(new PublishingDate(before));
+        Book book = saveBook("Rescheduled", publishingDate);
+        publishingDateService.getBooksByPublishingDate(before);
+        publishingDateService.getBooksByPublishingDate(after);
+
+        publishingDate.setDate(after);
+        publishingDateService.updatePublishingDate(publishingDate, List.of(book.getId()));
+
+        assertTrue(publishingDateService.getBooksByPublishingDate(before).isEmpty());
+        assertEquals(1, publishingDateService.getBooksByPublishingDate(after).size());
+    }
+
+    private Book saveBook(String title, PublishingDate publishingDate) {
+        Book book = new Book(title, "Genre");
+        book.setPublishingDate(publishingDate);
+        return bookRepository.save(book);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", BooksByDateCache.NAME)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
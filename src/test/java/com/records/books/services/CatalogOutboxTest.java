@@ -0,0 +1,331 @@
+package com.records.books.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.records.books.dto.BookListItem;
+import com.records.books.dto.BookRequest;
+import com.records.books.entities.Book;
+import com.records.books.entities.OutboxEvent;
+import com.records.books.entities.PublishingDate;
+import com.records.books.repositories.BookRepository;
+import com.records.books.repositories.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that catalog writes record their events in the outbox, and that the relay delivers them in
+ * order, again after a failed delivery, and with lag metrics. Batches of three make the relay go through
+ * several batches. Not transactional: events must commit with their writes.
+ */
+@SpringBootTest(properties = "books.outbox.relay.batch-size=3")
+@ActiveProfiles("test")
+public class CatalogOutboxTest {
+    @TestConfiguration
+    static class Sink {
+        @Bean
+        @Primary
+        public RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+    }
+
+    static class RecordingSink implements OutboxEventSink {
+        final List<OutboxEvent> delivered = new CopyOnWriteArrayList<>();
+        final AtomicInteger failures = new AtomicInteger();
+
+        @Override
+        public void publish(List<OutboxEvent> events) throws IOException {
+            if (failures.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+                throw new IOException("Sink unavailable");
+            }
+            delivered.addAll(events);
+        }
+    }
+
+    @Autowired
+    private RecordingSink sink;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private PublishingDateService publishingDateService;
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Tests that each write records one event with the state after the change, delivered in write order.
+     */
+    @Test
+    public void testWrites_areDeliveredInOrder() throws IOException {
+        PublishingDate date = createDate();
+        Book book = new Book("Outboxed", "Genre");
+        bookService.saveBook(book);
+        bookService.updateBookTitle(book.getId(), "Outboxed, renamed");
+        Book copy = bookRepository.findById(book.getId()).orElseThrow();
+        copy.setGenre("Other genre");
+        bookService.saveBook(copy);
+        PublishingDate form = publishingDateService.getPublishingDateForUpdate(date.getId()).orElseThrow();
+        publishingDateService.updatePublishingDate(form, List.of(book.getId()));
+
+        outboxRelay.relay();
+
+        assertEquals(0, outboxEventRepository.count());
+        List<OutboxEvent> bookEvents = delivered(CatalogOutbox.BOOK, book.getId());
+        assertEquals(List.of(CatalogOutbox.BOOK_CREATED, CatalogOutbox.BOOK_RENAMED, CatalogOutbox.BOOK_UPDATED,
+                        CatalogOutbox.BOOK_UPDATED),
+                bookEvents.stream().map(OutboxEvent::getEventType).toList());
+        JsonNode updated = objectMapper.readTree(bookEvents.get(2).getPayload());
+        assertEquals("Outboxed, renamed", updated.get("title").asText());
+        assertEquals("Other genre", updated.get("genre").asText());
+        assertEquals(copy.getVersion(), updated.get("version").asLong());
+        JsonNode moved = objectMapper.readTree(bookEvents.get(3).getPayload());
+        assertEquals(date.getDate().toString(), moved.get("publishingDate").asText());
+        assertEquals(copy.getVersion() + 1, moved.get("version").asLong());
+
+        List<OutboxEvent> dateEvents = delivered(CatalogOutbox.PUBLISHING_DATE, date.getId());
+        assertEquals(List.of(CatalogOutbox.PUBLISHING_DATE_CREATED, CatalogOutbox.PUBLISHING_DATE_UPDATED),
+                dateEvents.stream().map(OutboxEvent::getEventType).toList());
+        JsonNode dateUpdated = objectMapper.readTree(dateEvents.get(1).getPayload());
+        assertEquals(date.getDate().toString(), dateUpdated.get("date").asText());
+        assertEquals(1, dateUpdated.get("bookCount").asInt());
+    }
+
+    /**
+     * Tests that a date with thousands of books records a bounded event of its own and one event per book,
+     * also for the books an edit of the date takes off it.
+     */
+    @Test
+    public void testDateWithThousandsOfBooks_recordsOneEventPerBook() throws IOException {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            books.add(new Book("Many " + i, "Genre"));
+        }
+        List<Long> bookIds = bookRepository.saveAll(books).stream().map(Book::getId).toList();
+        PublishingDate date = new PublishingDate(TestDates.next());
+
+        publishingDateService.savePublishingDate(date, bookIds);
+        PublishingDate form = publishingDateService.getPublishingDateForUpdate(date.getId()).orElseThrow();
+        publishingDateService.updatePublishingDate(form, bookIds.subList(0, 4000));
+        // Read from the outbox rather than relayed: batches of three would take thousands of transactions.
+        List<OutboxEvent> recorded = outboxEventRepository.findAll(Sort.by("id"));
+        outboxEventRepository.deleteAllInBatch();
+
+        List<OutboxEvent> dateEvents = events(recorded, CatalogOutbox.PUBLISHING_DATE, date.getId());
+        assertEquals(5000, objectMapper.readTree(dateEvents.get(0).getPayload()).get("bookCount").asInt());
+        assertEquals(4000, objectMapper.readTree(dateEvents.get(1).getPayload()).get("bookCount").asInt());
+        JsonNode kept = objectMapper.readTree(events(recorded, CatalogOutbox.BOOK, bookIds.get(0)).get(1).getPayload());
+        assertEquals(date.getDate().toString(), kept.get("publishingDate").asText());
+        List<OutboxEvent> removed = events(recorded, CatalogOutbox.BOOK, bookIds.get(4999));
+        assertEquals(2, removed.size());
+        assertTrue(objectMapper.readTree(removed.get(1).getPayload()).get("publishingDate").isNull());
+        Set<Long> ids = new HashSet<>(bookIds);
+        assertEquals(5000 + 4000 + 1000, recorded.stream()
+                .filter(event -> event.getAggregateType().equals(CatalogOutbox.BOOK) && ids.contains(event.getAggregateId()))
+                .count());
+    }
+
+    /**
+     * Tests that books and dates created in bulk, through the service or an import, record one event each.
+     */
+    @Test
+    public void testBulkCreates_recordOneEventPerRow() throws IOException {
+        List<PublishingDate> dates = publishingDateService.savePublishingDates(List.of(
+                new PublishingDate(TestDates.next()), new PublishingDate(TestDates.next())));
+        List<BookListItem> created = bookService.createBooks(List.of(
+                new BookRequest("Bulk 1", "Genre", dates.get(0).getId()), new BookRequest("Bulk 2", "Genre", null)));
+        LocalDate importedDay = TestDates.next();
+        bookImportService.importBooks(new StringReader("Imported in bulk,Genre," + importedDay + "\n"), CatalogFormat.CSV);
+
+        outboxRelay.relay();
+
+        for (PublishingDate date : dates) {
+            List<OutboxEvent> dateEvents = delivered(CatalogOutbox.PUBLISHING_DATE, date.getId());
+            assertEquals(List.of(CatalogOutbox.PUBLISHING_DATE_CREATED), dateEvents.stream().map(OutboxEvent::getEventType).toList());
+            assertEquals(0, objectMapper.readTree(dateEvents.get(0).getPayload()).get("bookCount").asInt());
+        }
+        for (BookListItem book : created) {
+            assertEquals(List.of(CatalogOutbox.BOOK_CREATED),
+                    delivered(CatalogOutbox.BOOK, book.getId()).stream().map(OutboxEvent::getEventType).toList());
+        }
+        JsonNode first = objectMapper.readTree(delivered(CatalogOutbox.BOOK, created.get(0).getId()).get(0).getPayload());
+        assertEquals(dates.get(0).getDate().toString(), first.get("publishingDate").asText());
+        List<JsonNode> imported = new ArrayList<>();
+        for (OutboxEvent event : sink.delivered) {
+            JsonNode payload = objectMapper.readTree(event.getPayload());
+            if (importedDay.toString().equals(payload.path(
+                    event.getAggregateType().equals(CatalogOutbox.BOOK) ? "publishingDate" : "date").asText())) {
+                imported.add(payload);
+            }
+        }
+        assertEquals(2, imported.size());
+        assertEquals("Imported in bulk", imported.get(1).get("title").asText());
+    }
+
+    /**
+     * Tests that a write that does not commit records no event.
+     */
+    @Test
+    public void testRejectedWrite_recordsNothing() {
+        Book book = new Book("Contested", "Genre");
+        bookService.saveBook(book);
+        Book first = bookRepository.findById(book.getId()).orElseThrow();
+        Book second = bookRepository.findById(book.getId()).orElseThrow();
+        first.setGenre("First");
+        bookService.saveBook(first);
+        second.setGenre("Second");
+
+        assertThrows(OptimisticLockingFailureException.class, () -> bookService.saveBook(second));
+
+        outboxRelay.relay();
+        assertEquals(List.of(CatalogOutbox.BOOK_CREATED, CatalogOutbox.BOOK_UPDATED),
+                delivered(CatalogOutbox.BOOK, book.getId()).stream().map(OutboxEvent::getEventType).toList());
+    }
+
+    /**
+     * Tests that concurrent renames of one book are delivered in the order of their versions.
+     */
+    @Test
+    public void testConcurrentRenames_areDeliveredInVersionOrder() throws Exception {
+        Book book = new Book("Raced", "Genre");
+        bookService.saveBook(book);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> renames = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                String title = "Raced " + i;
+                renames.add(executor.submit(() -> bookService.updateBookTitle(book.getId(), title)));
+            }
+            for (Future<?> rename : renames) {
+                rename.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        outboxRelay.relay();
+
+        List<Long> versions = new ArrayList<>();
+        for (OutboxEvent event : delivered(CatalogOutbox.BOOK, book.getId())) {
+            versions.add(objectMapper.readTree(event.getPayload()).get("version").asLong());
+        }
+        assertEquals(21, versions.size());
+        assertEquals(versions.stream().sorted().toList(), versions);
+    }
+
+    /**
+     * Tests that a batch whose delivery fails stays in the outbox and is delivered on the next relay.
+     */
+    @Test
+    public void testFailedDelivery_isRetried() {
+        outboxRelay.relay();
+        double failuresBefore = meterRegistry.get("books.outbox.failures").counter().count();
+        Book book = new Book("Retried", "Genre");
+        bookService.saveBook(book);
+        sink.failures.set(1);
+
+        assertThrows(RuntimeException.class, () -> outboxRelay.relay());
+        assertEquals(1, outboxEventRepository.count());
+        assertEquals(failuresBefore + 1, meterRegistry.get("books.outbox.failures").counter().count());
+
+        assertEquals(1, outboxRelay.relay());
+        assertEquals(1, delivered(CatalogOutbox.BOOK, book.getId()).size());
+    }
+
+    /**
+     * Tests that every delivered event is timed and that nothing is reported pending once the outbox is empty.
+     */
+    @Test
+    public void testRelay_recordsLag() {
+        for (int i = 0; i < 7; i++) {
+            bookService.saveBook(new Book("Timed " + i, "Genre"));
+        }
+        long timedBefore = meterRegistry.get("books.outbox.lag").timer().count();
+
+        int relayed = outboxRelay.relay();
+
+        assertTrue(relayed >= 7);
+        assertEquals(timedBefore + relayed, meterRegistry.get("books.outbox.lag").timer().count());
+        assertEquals(0.0, meterRegistry.get("books.outbox.oldest.age").gauge().value());
+    }
+
+    /**
+     * Tests that the file sink appends one JSON line per event, with the payload as a nested object.
+     */
+    @Test
+    public void testFileSink_appendsJsonLines(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("events.jsonl");
+        FileOutboxEventSink fileSink = new FileOutboxEventSink(file, objectMapper);
+        Instant now = Instant.now();
+
+        fileSink.publish(List.of(new OutboxEvent(CatalogOutbox.BOOK, 1L, CatalogOutbox.BOOK_CREATED, "{\"title\":\"One\"}", now)));
+        fileSink.publish(List.of(new OutboxEvent(CatalogOutbox.BOOK, 1L, CatalogOutbox.BOOK_RENAMED, "{\"title\":\"Two\"}", now)));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode second = objectMapper.readTree(lines.get(1));
+        assertEquals(CatalogOutbox.BOOK_RENAMED, second.get("eventType").asText());
+        assertEquals("Two", second.get("payload").get("title").asText());
+    }
+
+    private List<OutboxEvent> delivered(String aggregateType, Long aggregateId) {
+        return events(sink.delivered, aggregateType, aggregateId);
+    }
+
+    private static List<OutboxEvent> events(List<OutboxEvent> events, String aggregateType, Long aggregateId) {
+        return events.stream()
+                .filter(event -> event.getAggregateType().equals(aggregateType) && event.getAggregateId().equals(aggregateId))
+                .toList();
+    }
+
+    private PublishingDate createDate() {
+        PublishingDate date = new PublishingDate(TestDates.next());
+        publishingDateService.savePublishingDate(date, List.of());
+        return date;
+    }
+}
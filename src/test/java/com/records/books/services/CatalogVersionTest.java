@@ -0,0 +1,63 @@
+package com.records.books.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Unit tests for CatalogVersion on several nodes sharing one invalidation channel.
+ */
+public class CatalogVersionTest {
+
+    /**
+     * Tests that a bump on one node changes the validators of the others, even if their version is ahead.
+     */
+    @Test
+    public void testBump_changesTheVersionOfOtherNodes() {
+        CacheInvalidationChannel channel = new LocalCacheInvalidationChannel();
+        CatalogVersion first = new CatalogVersion(channel);
+        CatalogVersion second = new CatalogVersion(channel);
+        second.bump();
+        second.bump();
+        String firstEtag = first.getEtag();
+        String secondEtag = second.getEtag();
+
+        first.bump();
+
+        assertNotEquals(firstEtag, first.getEtag());
+        assertNotEquals(secondEtag, second.getEtag());
+    }
+
+    /**
+     * Tests that nodes that saw the same writes hand out the same ETag, so a client switching nodes
+     * behind a load balancer still revalidates with 304.
+     */
+    @Test
+    public void testBump_convergesOnOneEtag() {
+        CacheInvalidationChannel channel = new LocalCacheInvalidationChannel();
+        CatalogVersion first = new CatalogVersion(channel);
+        CatalogVersion second = new CatalogVersion(channel);
+
+        first.bump();
+        second.bump();
+
+        assertEquals(first.getEtag(), second.getEtag());
+    }
+
+    /**
+     * Tests that a closed node no longer follows the others.
+     */
+    @Test
+    public void testClose_stopsFollowingOtherNodes() {
+        CacheInvalidationChannel channel = new LocalCacheInvalidationChannel();
+        CatalogVersion first = new CatalogVersion(channel);
+        CatalogVersion second = new CatalogVersion(channel);
+        second.close();
+        long version = second.getVersion();
+
+        first.bump();
+
+        assertEquals(version, second.getVersion());
+    }
+}
@@ -0,0 +1,208 @@
+package com.records.books.services;
+
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import com.records.books.repositories.BookRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers the write paths of books and publishing dates from many threads and checks that no write is lost.
+ * Not transactional: every write must commit for the others to see it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class OptimisticLockingTest {
+    private static final int THREADS = 8;
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private PublishingDateService publishingDateService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Tests that concurrent renames all apply, one version each, without surfacing a conflict.
+     */
+    @Test
+    public void testConcurrentRenames_allApply() throws Exception {
+        Book book = new Book("Renamed 0", "Genre");
+        bookService.saveBook(book);
+        int renamesPerThread = 10;
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < renamesPerThread; i++) {
+                assertTrue(bookService.updateBookTitle(book.getId(), "Renamed " + thread + "-" + i));
+            }
+        });
+
+        Book stored = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(book.getVersion() + THREADS * renamesPerThread, stored.getVersion());
+    }
+
+    /**
+     * Tests that read-modify-write edits of a book retried on conflict keep every edit.
+     */
+    @Test
+    public void testConcurrentBookEdits_keepEveryEdit() throws Exception {
+        Book book = new Book("Edited", "Genre");
+        bookService.saveBook(book);
+        int editsPerThread = 4;
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < editsPerThread; i++) {
+                String mark = " " + thread + "." + i;
+                retryOnConflict(() -> {
+                    Book copy = bookRepository.findById(book.getId()).orElseThrow();
+                    copy.setTitle(copy.getTitle() + mark);
+                    bookService.saveBook(copy);
+                });
+            }
+        });
+
+        String title = bookRepository.findById(book.getId()).orElseThrow().getTitle();
+        List<String> marks = List.of(title.split(" "));
+        for (int thread = 0; thread < THREADS; thread++) {
+            for (int i = 0; i < editsPerThread; i++) {
+                assertTrue(marks.contains(thread + "." + i), "Lost edit " + thread + "." + i + " in " + title);
+            }
+        }
+    }
+
+    /**
+     * Tests that editors adding books to the same date from a stale form are rejected instead of
+     * dropping each other's books, and keep every book once they retry.
+     */
+    @Test
+    public void testConcurrentDateEdits_keepEveryBook() throws Exception {
+        PublishingDate date = createDate();
+        List<Long> ownBookIds = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            Book book = new Book("Joining " + thread, "Genre");
+            bookService.saveBook(book);
+            ownBookIds.add(book.getId());
+        }
+
+        runConcurrently(thread -> retryOnConflict(() -> {
+            PublishingDate form = publishingDateService.getPublishingDateForUpdate(date.getId()).orElseThrow();
+            List<Long> bookIds = new ArrayList<>(form.getBooks().stream().map(Book::getId).toList());
+            bookIds.add(ownBookIds.get(thread));
+            publishingDateService.updatePublishingDate(form, bookIds);
+        }));
+
+        List<Long> stored = publishingDateService.getPublishingDateById(date.getId()).orElseThrow()
+                .getBooks().stream().map(Book::getId).sorted().toList();
+        assertEquals(ownBookIds, stored);
+    }
+
+    /**
+     * Tests that a form saved after someone else's edit is rejected and changes nothing.
+     */
+    @Test
+    public void testStaleDateEdit_isRejected() {
+        PublishingDate date = createDate();
+        PublishingDate first = publishingDateService.getPublishingDateForUpdate(date.getId()).orElseThrow();
+        PublishingDate second = publishingDateService.getPublishingDateForUpdate(date.getId()).orElseThrow();
+
+        publishingDateService.updatePublishingDate(first, List.of());
+        second.setDate(second.getDate().plusYears(1));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> publishingDateService.updatePublishingDate(second, List.of()));
+        assertEquals(date.getDate(), publishingDateService.getPublishingDateById(date.getId()).orElseThrow().getDate());
+    }
+
+    /**
+     * Tests that each write checks out a single connection.
+     */
+    @Test
+    public void testWrites_checkOutOneConnectionEach() {
+        PublishingDate date = createDate();
+        Book book = new Book("Single checkout", "Genre");
+        book.setPublishingDate(date);
+        bookService.saveBook(book);
+
+        assertEquals(1, connectionCheckouts(() -> bookService.updateBookTitle(book.getId(), "Single checkout, renamed")));
+
+        Book copy = bookRepository.findById(book.getId()).orElseThrow();
+        copy.setGenre("Other genre");
+        assertEquals(1, connectionCheckouts(() -> bookService.saveBook(copy)));
+
+        PublishingDate form = publishingDateService.getPublishingDateForUpdate(date.getId()).orElseThrow();
+        assertEquals(1, connectionCheckouts(() -> publishingDateService.updatePublishingDate(form, List.of(book.getId()))));
+    }
+
+    private interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+
+    private void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int current = thread;
+                Callable<Void> call = () -> {
+                    start.await();
+                    task.run(current);
+                    return null;
+                };
+                futures.add(executor.submit(call));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void retryOnConflict(Runnable write) {
+        while (true) {
+            try {
+                write.run();
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                // Someone else saved first: read the current version and apply the edit again.
+            }
+        }
+    }
+
+    /**
+     * Runs the write and returns the number of connections it checked out of the pool.
+     */
+    private long connectionCheckouts(Runnable write) {
+        long before = meterRegistry.get("hikaricp.connections.usage").timer().count();
+        write.run();
+        return meterRegistry.get("hikaricp.connections.usage").timer().count() - before;
+    }
+
+    private PublishingDate createDate() {
+        PublishingDate date = new PublishingDate(TestDates.next());
+        publishingDateService.savePublishingDates(List.of(date));
+        return date;
+    }
+}
@@ -0,0 +1,151 @@
+package com.records.books.services;
+
+import com.records.books.dto.KeysetPage;
+import com.records.books.dto.PublishingDateCatalogEntry;
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that publishing dates catalog pages are loaded with a constant number of statements.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class PublishingDateCatalogQueryTest {
+
+    @Autowired
+    private PublishingDateService publishingDateService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Tests that the statement count does not grow with the number of dates and books.
+     */
+    @Test
+    public void testGetPublishingDateCatalog_statementCountIsConstant() {
+        insertDates(LocalDate.of(2100, 1, 1), 5, 2);
+        long smallCatalogStatements = countCatalogStatements(null, KeysetPage.MAX_LIMIT);
+
+        insertDates(LocalDate.of(2200, 1, 1), 50, 4);
+        long largeCatalogStatements = countCatalogStatements(null, KeysetPage.MAX_LIMIT);
+
+        assertEquals(2, smallCatalogStatements);
+        assertEquals(smallCatalogStatements, largeCatalogStatements);
+    }
+
+    /**
+     * Tests that walking the catalog page by page visits every date once at a constant cost per page.
+     */
+    @Test
+    public void testGetPublishingDateCatalog_keysetPagination() {
+        LocalDate start = LocalDate.of(2400, 1, 1);
+        insertDates(start, 30, 1);
+
+        LocalDate after = start.minusDays(1);
+        List<LocalDate> visited = new ArrayList<>();
+        do {
+            assertEquals(2, countCatalogStatements(after, 7));
+            KeysetPage<PublishingDateCatalogEntry, LocalDate> page = publishingDateService.getPublishingDateCatalog(after, 7);
+            page.getItems().forEach(entry -> visited.add(entry.getDate()));
+            after = page.getNextKey();
+        } while (after != null);
+
+        assertEquals(30, visited.size());
+        assertEquals(start, visited.get(0));
+        assertEquals(start.plusDays(29), visited.get(29));
+    }
+
+    /**
+     * Tests that each catalog entry carries its books and that dates without books are kept.
+     */
+    @Test
+    public void testGetPublishingDateCatalog_groupsBooksByDate() {
+        insertDates(LocalDate.of(2300, 1, 1), 2, 3);
+        PublishingDate empty = new PublishingDate(LocalDate.of(2300, 6, 1));
+        entityManager.persist(empty);
+        entityManager.flush();
+
+        List<PublishingDateCatalogEntry> catalog =
+                publishingDateService.getPublishingDateCatalog(LocalDate.of(2299, 12, 31), KeysetPage.MAX_LIMIT).getItems();
+
+        PublishingDateCatalogEntry first = find(catalog, LocalDate.of(2300, 1, 1));
+        assertEquals(3, first.getBooks().size());
+        assertTrue(find(catalog, LocalDate.of(2300, 6, 1)).getBooks().isEmpty());
+    }
+
+    /**
+     * Tests that a date lists only its first books, by id, and counts the rest.
+     */
+    @Test
+    public void testGetPublishingDateCatalog_boundsBooksPerDate() {
+        insertDates(LocalDate.of(2500, 1, 1), 1, 25);
+        insertDates(LocalDate.of(2500, 1, 2), 1, 3);
+        entityManager.flush();
+
+        List<PublishingDateCatalogEntry> catalog =
+                publishingDateService.getPublishingDateCatalog(LocalDate.of(2499, 12, 31), 2).getItems();
+
+        PublishingDateCatalogEntry crowded = find(catalog, LocalDate.of(2500, 1, 1));
+        assertEquals(20, crowded.getBooks().size());
+        assertEquals(25, crowded.getBookCount());
+        assertEquals("Title 0-0", crowded.getBooks().get(0).getTitle());
+        assertEquals("Title 0-19", crowded.getBooks().get(19).getTitle());
+        PublishingDateCatalogEntry small = find(catalog, LocalDate.of(2500, 1, 2));
+        assertEquals(3, small.getBooks().size());
+        assertEquals(3, small.getBookCount());
+    }
+
+    private long countCatalogStatements(LocalDate after, int limit) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        publishingDateService.getPublishingDateCatalog(after, limit);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void insertDates(LocalDate start, int dates, int booksPerDate) {
+        for (int i = 0; i < dates; i++) {
+            PublishingDate publishingDate = new PublishingDate(start.plusDays(i));
+            entityManager.persist(publishingDate);
+            for (int j = 0; j < booksPerDate; j++) {
+                Book book = new Book("Title " + i + "-" + j, "Genre " + j);
+                book.setPublishingDate(publishingDate);
+                entityManager.persist(book);
+            }
+        }
+    }
+
+    private PublishingDateCatalogEntry find(List<PublishingDateCatalogEntry> catalog, LocalDate date) {
+        return catalog.stream()
+                .filter(entry -> entry.getDate().equals(date))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No catalog entry for " + date));
+    }
+}
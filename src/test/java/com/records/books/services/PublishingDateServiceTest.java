@@ -0,0 +1,83 @@
+package com.records.books.services;
+
+import com.records.books.dto.BookSummary;
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import com.records.books.repositories.BookRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Integration tests for PublishingDateServiceImpl against the embedded database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class PublishingDateServiceTest {
+
+    @Autowired
+    private PublishingDateService publishingDateService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Tests that assignBooks updates every book when the ID list spans several chunks.
+     */
+    @Test
+    public void testAssignBooks_spansMultipleChunks() {
+        PublishingDate publishingDate = new PublishingDate(LocalDate.of(2500, 1, 1));
+        entityManager.persist(publishingDate);
+        List<Long> bookIds = persistBooks(2500);
+
+        int updated = publishingDateService.assignBooks(publishingDate.getId(), bookIds);
+
+        assertEquals(2500, updated);
+        assertEquals(2500, bookRepository.findBooksByPublishingDate(publishingDate.getDate()).size());
+    }
+
+    /**
+     * Tests that updatePublishingDate replaces the previous set of books.
+     */
+    @Test
+    public void testUpdatePublishingDate_replacesBooks() {
+        PublishingDate publishingDate = new PublishingDate(LocalDate.of(2500, 2, 1));
+        entityManager.persist(publishingDate);
+        List<Long> bookIds = persistBooks(4);
+        publishingDateService.assignBooks(publishingDate.getId(), bookIds.subList(0, 2));
+
+        PublishingDate form = new PublishingDate(LocalDate.of(2500, 2, 2));
+        form.setId(publishingDate.getId());
+        publishingDateService.updatePublishingDate(form, bookIds.subList(2, 4));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertNull(bookRepository.findById(bookIds.get(0)).orElseThrow().getPublishingDate());
+        assertEquals(bookIds.subList(2, 4), bookRepository.findBooksByPublishingDate(LocalDate.of(2500, 2, 2))
+                .stream().map(BookSummary::getId).sorted().toList());
+    }
+
+    private List<Long> persistBooks(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Book book = new Book("Assigned " + i, "Genre");
+            entityManager.persist(book);
+            ids.add(book.getId());
+        }
+        entityManager.flush();
+        return ids;
+    }
+}
@@ -0,0 +1,183 @@
+package com.records.books.services;
+
+import com.records.books.BooksApplication;
+import com.records.books.entities.Book;
+import com.records.books.entities.PublishingDate;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the second-level cache of publishing dates, their books and books, and that it stays coherent
+ * on this node and with a second node sharing the database and the invalidation channel.
+ * Not transactional: entries become visible to other transactions at commit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class SecondLevelCacheTest {
+    @Autowired
+    private PublishingDateService publishingDateService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheInvalidationChannel cacheInvalidationChannel;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Tests that a cached date is returned with its books without any statement, and that renaming a cached
+     * book only sends the update; its outbox event is written over JDBC, which the statistics do not count.
+     */
+    @Test
+    public void testCachedDateAndBook_needNoLookupStatements() {
+        PublishingDate date = createDate(3);
+        publishingDateService.getPublishingDateById(date.getId());
+
+        statistics.clear();
+        PublishingDate cached = publishingDateService.getPublishingDateById(date.getId()).orElseThrow();
+        assertEquals(3, cached.getBooks().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getDomainDataRegionStatistics("publishing-date-books").getHitCount() > 0);
+
+        statistics.clear();
+        bookService.updateBookTitle(cached.getBooks().get(0).getId(), "Renamed in cache");
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTitles(date, "Renamed in cache");
+    }
+
+    /**
+     * Tests that the cached books of a date follow new books and bulk reassignments, which Hibernate does not
+     * track on the inverse side of the association.
+     */
+    @Test
+    public void testCachedBooksOfDate_followBookChanges() {
+        PublishingDate first = createDate(2);
+        PublishingDate second = createDate(1);
+        publishingDateService.getPublishingDateById(first.getId());
+        publishingDateService.getPublishingDateById(second.getId());
+
+        Book added = new Book("Added later", "Genre");
+        added.setPublishingDate(first);
+        bookService.saveBook(added);
+        assertEquals(3, booksOf(first).size());
+
+        publishingDateService.assignBooks(second.getId(), List.of(added.getId()));
+        assertEquals(2, booksOf(first).size());
+        assertEquals(2, booksOf(second).size());
+    }
+
+    /**
+     * Tests that moving books and changing a date drop only the cached entries of the rows they change, and
+     * that the changed rows are read back with their new values.
+     */
+    @Test
+    public void testBulkChanges_keepUnrelatedEntriesCached() {
+        PublishingDate unrelated = createDate(2);
+        PublishingDate first = createDate(2);
+        PublishingDate second = createDate(1);
+        booksOf(unrelated);
+        Long moved = booksOf(first).get(0).getId();
+
+        publishingDateService.assignBooks(second.getId(), List.of(moved));
+        PublishingDate form = publishingDateService.getPublishingDateForUpdate(second.getId()).orElseThrow();
+        form.setDate(form.getDate().plusYears(500));
+        publishingDateService.updatePublishingDate(form, form.getBooks().stream().map(Book::getId).toList());
+
+        statistics.clear();
+        assertEquals(2, booksOf(unrelated).size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        assertEquals(1, booksOf(first).size());
+        PublishingDate updated = publishingDateService.getPublishingDateById(second.getId()).orElseThrow();
+        assertEquals(form.getDate(), updated.getDate());
+        assertEquals(2, updated.getBooks().size());
+        assertTrue(updated.getBooks().stream().anyMatch(book -> book.getId().equals(moved)));
+        assertEquals(form.getDate(), updated.getBooks().get(0).getPublishingDate().getDate());
+    }
+
+    /**
+     * Tests that changes made on another node are visible on this node instead of its cached entries.
+     */
+    @Test
+    public void testChangesOnOtherNode_invalidateThisNode() throws SQLException {
+        PublishingDate date = createDate(2);
+        publishingDateService.getPublishingDateById(date.getId());
+        statistics.clear();
+        Long bookId = booksOf(date).get(0).getId();
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        try (ConfigurableApplicationContext otherNode = startOtherNode()) {
+            BookService otherBookService = otherNode.getBean(BookService.class);
+            otherBookService.updateBookTitle(bookId, "Renamed elsewhere");
+            Book added = new Book("Added elsewhere", "Genre");
+            added.setPublishingDate(otherNode.getBean(PublishingDateService.class).getPublishingDateById(date.getId()).orElseThrow());
+            otherBookService.saveBook(added);
+        }
+
+        List<Book> books = booksOf(date);
+        assertEquals(3, books.size());
+        assertTitles(date, "Renamed elsewhere", "Added elsewhere");
+    }
+
+    private ConfigurableApplicationContext startOtherNode() throws SQLException {
+        String url = dataSource.unwrap(HikariDataSource.class).getJdbcUrl();
+        return new SpringApplicationBuilder(BooksApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .initializers(context -> context.getBeanFactory()
+                        .registerSingleton("cacheInvalidationChannel", cacheInvalidationChannel))
+                .run("--spring.datasource.url=" + url,
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--books.seed.enabled=false");
+    }
+
+    private PublishingDate createDate(int books) {
+        PublishingDate date = new PublishingDate(TestDates.next());
+        publishingDateService.savePublishingDates(List.of(date));
+        for (int i = 0; i < books; i++) {
+            Book book = new Book("Cached " + date.getDate() + " " + i, "Genre");
+            book.setPublishingDate(date);
+            bookService.saveBook(book);
+        }
+        return date;
+    }
+
+    private List<Book> booksOf(PublishingDate date) {
+        return publishingDateService.getPublishingDateById(date.getId()).orElseThrow().getBooks();
+    }
+
+    private void assertTitles(PublishingDate date, String... titles) {
+        List<String> cachedTitles = booksOf(date).stream().map(Book::getTitle).toList();
+        for (String title : titles) {
+            assertTrue(cachedTitles.contains(title), "Missing " + title + " in " + cachedTitles);
+        }
+    }
+}
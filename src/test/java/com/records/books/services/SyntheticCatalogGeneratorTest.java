@@ -0,0 +1,93 @@
+package com.records.books.services;
+
+import com.records.books.config.DatabaseLoader;
+import com.records.books.dto.BookCount;
+import com.records.books.repositories.BookRepository;
+import com.records.books.repositories.PublishingDateRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for the synthetic catalog generator and the startup loader that uses it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class SyntheticCatalogGeneratorTest {
+
+    @Autowired
+    private SyntheticCatalogGenerator generator;
+
+    @Autowired
+    private DatabaseLoader databaseLoader;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PublishingDateRepository publishingDateRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Tests that every book lands on one of the generated dates and that a skew concentrates books on few dates.
+     */
+    @Test
+    public void testGenerate_skewedBooksPerDate() {
+        LocalDate firstDate = LocalDate.of(3500, 1, 1);
+        generator.generate(100, 5000, 1.2, firstDate, 7);
+
+        List<BookCount> perDay = bookRepository.countByDay(firstDate, firstDate.plusDays(99));
+        assertEquals(5000, perDay.stream().mapToLong(BookCount::getCount).sum());
+        List<Long> counts = perDay.stream().map(BookCount::getCount).sorted(Comparator.reverseOrder()).toList();
+        long median = counts.get(counts.size() / 2);
+        assertTrue(counts.get(0) > 10 * median, "Top date has " + counts.get(0) + " books, median " + median);
+    }
+
+    /**
+     * Tests that titles have between 1 and 12 words, mostly a few, and are reproducible from the seed.
+     */
+    @Test
+    public void testTitle_realisticLengthsAndDeterministic() {
+        Random first = new Random(1);
+        Random second = new Random(1);
+        int totalWords = 0;
+        for (int i = 0; i < 1000; i++) {
+            String title = generator.title(first);
+            assertEquals(title, generator.title(second));
+            int words = title.split(" ").length;
+            assertTrue(words >= 1 && words <= 12, title);
+            totalWords += words;
+        }
+        double averageWords = totalWords / 1000.0;
+        assertTrue(averageWords > 2 && averageWords < 4, "Average title has " + averageWords + " words");
+    }
+
+    /**
+     * Tests that the startup loader leaves a catalog with data alone, so restarts do not hit the unique date.
+     */
+    @Test
+    public void testDatabaseLoader_skipsWhenCatalogHasData() {
+        long dates = publishingDateRepository.count();
+        long books = bookRepository.count();
+        assertTrue(dates > 0);
+
+        databaseLoader.run();
+        entityManager.flush();
+
+        assertEquals(dates, publishingDateRepository.count());
+        assertEquals(books, bookRepository.count());
+    }
+}
@@ -0,0 +1,21 @@
+package com.records.books.services;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out publishing dates no other test uses. Test classes with the same configuration share one
+ * application context and so one database, where dates are unique; one counter for all of them keeps
+ * their dates apart without cleaning up after each test.
+ */
+final class TestDates {
+    private static final LocalDate FIRST = LocalDate.of(6000, 1, 1);
+    private static final AtomicLong NEXT_DAY = new AtomicLong();
+
+    private TestDates() {
+    }
+
+    static LocalDate next() {
+        return FIRST.plusDays(NEXT_DAY.getAndIncrement());
+    }
+}